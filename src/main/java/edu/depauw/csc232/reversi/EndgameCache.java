@@ -0,0 +1,612 @@
+package edu.depauw.csc232.reversi;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.depauw.csc232.reversi.model.BitBoard;
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Symmetry;
+import edu.depauw.csc232.reversi.model.Zobrist;
+
+/**
+ * A cache of exactly solved endgame positions that is kept on disk, so that
+ * the positions that come up again in later games are not solved again. Each
+ * entry maps the hash of the canonical form of a position, see
+ * {@link Symmetry}, with the player to move as black, to its exact final disc
+ * differential for the player to move, its best move and its number of empty
+ * cells. All the images of a position by the symmetries of the board share
+ * one entry.
+ *
+ * The cache is kept in generation files named after the path it is opened
+ * with, followed by a dot and the generation number, e.g.
+ * <tt>endgame.bin.0</tt>. Each file starts with a header of three big-endian
+ * ints: the magic number
+ * {@link #MAGIC}, the format {@link #VERSION} and the number of sorted
+ * entries, followed by the sorted entries, then by the entries appended since
+ * in the order they were solved. Each entry is the key as a <tt>long</tt> and
+ * the packed result as an <tt>int</tt>. The sorted entries are memory-mapped
+ * and searched in place; the appended ones are also kept in an open
+ * addressing table until the next compaction, which merges them into the
+ * sorted entries. Neither lookups nor additions allocate.
+ *
+ * The cache is compacted when it is opened with appended entries, and when it
+ * is closed beyond its maximum number of entries, never during a search. A
+ * compaction writes the merged entries to the next generation and switches to
+ * it, since the file of the current one may still be mapped and cannot be
+ * replaced on every platform; the older generations are deleted once they can
+ * be. If the cache holds more entries than its maximum, only the positions
+ * with the most empty cells, which are the most expensive to solve, are kept.
+ * If a file cannot be written, the failure is logged and the cache is disabled
+ * rather than failing the search. The methods are synchronized, so a cache may
+ * be shared by several solvers.
+ *
+ */
+public class EndgameCache implements Closeable {
+
+	/**
+	 * The first int of every cache file, "RVEC"
+	 */
+	public static final int MAGIC = 0x52564543;
+
+	/**
+	 * The version of the format written, {@value}
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The entry returned by {@link #probe(long, long)} for a position that is
+	 * not in the cache, {@value}
+	 */
+	public static final int MISS = -1;
+
+	/**
+	 * The default maximum number of entries, {@value}
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1 << 20;
+
+	/**
+	 * The default number of empty cells from which on solved positions are
+	 * cached, {@value}
+	 */
+	public static final int DEFAULT_MIN_EMPTIES = 12;
+
+	/**
+	 * The number of bytes before the entries, {@value}
+	 */
+	private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+	/**
+	 * The number of bytes of an entry, {@value}
+	 */
+	private static final int ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+
+	private static final int MOVE_SHIFT = 8;
+
+	private static final int EMPTIES_SHIFT = 16;
+
+	private static final int NO_MOVE = 0xff;
+
+	/**
+	 * The initial number of slots of the table of appended entries, {@value}
+	 */
+	private static final int INITIAL_CAPACITY = 1 << 10;
+
+	private static final Logger LOGGER = Logger.getLogger(EndgameCache.class.getName());
+
+	/**
+	 * The path the cache was opened with, which the generation files are
+	 * named after
+	 */
+	private final Path file;
+
+	private final int maxEntries;
+
+	private final int minEmpties;
+
+	private final ByteBuffer record = ByteBuffer.allocateDirect(ENTRY_SIZE);
+
+	/**
+	 * The keys of the entries appended since the last compaction, zero for
+	 * the free slots
+	 */
+	private long[] appendedKeys = new long[INITIAL_CAPACITY];
+
+	private int[] appendedEntries = new int[INITIAL_CAPACITY];
+
+	private int appendedSize;
+
+	private boolean disabled;
+
+	private int generation;
+
+	private ByteBuffer entries;
+
+	private int sortedSize;
+
+	private FileChannel log;
+
+	private EndgameCache(final Path file, final int maxEntries, final int minEmpties) {
+		this.file = file;
+		this.maxEntries = maxEntries;
+		this.minEmpties = minEmpties;
+	}
+
+	/**
+	 * Opens the cache <tt>file</tt> given, which is created if it does not
+	 * exist, with the default maximum number of entries and number of empty
+	 * cells
+	 *
+	 * @param file
+	 *            the path the generation files of the cache are named after
+	 * @return the cache, backed by the file
+	 * @throws IOException
+	 *             if the file cannot be opened or is not a cache of the
+	 *             current version
+	 */
+	public static EndgameCache open(final Path file) throws IOException {
+		return open(file, DEFAULT_MAX_ENTRIES, DEFAULT_MIN_EMPTIES);
+	}
+
+	/**
+	 * Opens the cache <tt>file</tt> given, which is created if it does not
+	 * exist. The entries appended by earlier runs are merged into the sorted
+	 * ones.
+	 *
+	 * @param file
+	 *            the path the generation files of the cache are named after
+	 * @param maxEntries
+	 *            the number of entries beyond which the cache is cut down to
+	 *            the positions with the most empty cells
+	 * @param minEmpties
+	 *            the number of empty cells from which on solved positions are
+	 *            cached
+	 * @return the cache, backed by the file
+	 * @throws IOException
+	 *             if the file cannot be opened or is not a cache of the
+	 *             current version
+	 */
+	public static EndgameCache open(final Path file, final int maxEntries, final int minEmpties)
+			throws IOException {
+		final EndgameCache cache = new EndgameCache(file, maxEntries, minEmpties);
+		cache.generation = cache.findGeneration();
+		if (cache.generation < 0) {
+			cache.generation = 0;
+			try (OutputStream out = Files.newOutputStream(cache.getFile())) {
+				write(new long[0], new int[0], 0, out);
+			}
+		}
+		final int appendedSize = cache.map();
+		final ByteBuffer buffer = cache.entries;
+		for (int i = 0; i < appendedSize; ++i) {
+			final int offset = (cache.sortedSize + i) * ENTRY_SIZE;
+			final long key = buffer.getLong(offset);
+			if (key != 0L && cache.find(key) == MISS) {
+				cache.put(key, buffer.getInt(offset + Long.BYTES));
+			}
+		}
+		if (appendedSize > 0 || cache.sortedSize > maxEntries
+				|| buffer.limit() != cache.sortedSize * ENTRY_SIZE) {
+			cache.compact();
+		} else {
+			cache.openLog();
+		}
+		cache.deleteOldGenerations();
+		return cache;
+	}
+
+	/**
+	 * Looks up the position given
+	 *
+	 * @param own
+	 *            the discs of the player to move
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @return the entry of the position, to be read with the static getters,
+	 *         or {@link #MISS}
+	 */
+	public synchronized int probe(final long own, final long opponent) {
+		if (disabled) {
+			return MISS;
+		}
+		final int symmetry = Symmetry.getCanonicalSymmetry(own, opponent);
+		final int entry = find(getKey(own, opponent, symmetry));
+		if (entry == MISS || getMove(entry) == GameMove.NO_MOVE) {
+			return entry;
+		}
+		// the move is stored for the canonical form
+		final int move = Symmetry.transformCell(getMove(entry), Symmetry.inverse(symmetry));
+		return entry & ~(NO_MOVE << MOVE_SHIFT) | move << MOVE_SHIFT;
+	}
+
+	/**
+	 * Adds the exact result of a solve, unless the position has fewer empty
+	 * cells than the minimum of this cache or is already in it. The entry is
+	 * appended to the file right away; the cache may thus grow beyond its
+	 * maximum number of entries until it is closed.
+	 *
+	 * @param own
+	 *            the discs of the player to move
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @param score
+	 *            the final disc differential for the player to move
+	 * @param cellIndex
+	 *            the best move, {@link GameMove#NO_MOVE} for none
+	 */
+	public synchronized void store(final long own, final long opponent, final int score,
+			final int cellIndex) {
+		final int empties = Long.bitCount(~(own | opponent));
+		if (disabled || empties < minEmpties) {
+			return;
+		}
+		final int symmetry = Symmetry.getCanonicalSymmetry(own, opponent);
+		final long key = getKey(own, opponent, symmetry);
+		if (key == 0L || find(key) != MISS) {
+			return;
+		}
+		final int move = cellIndex == GameMove.NO_MOVE ? NO_MOVE : Symmetry.transformCell(
+				cellIndex, symmetry);
+		final int entry = score & 0xff | move << MOVE_SHIFT | empties << EMPTIES_SHIFT;
+		put(key, entry);
+		try {
+			record.clear();
+			record.putLong(key).putInt(entry).flip();
+			while (record.hasRemaining()) {
+				log.write(record);
+			}
+		} catch (final IOException e) {
+			disable(e);
+		}
+	}
+
+	/**
+	 * Merges the appended entries into the sorted ones, writes them to the
+	 * next generation and switches to it. If there are more entries than the
+	 * maximum, the positions with the fewest empty cells are dropped, down to
+	 * three quarters of the maximum, so that the next few entries do not call
+	 * for another compaction.
+	 */
+	private void compact() throws IOException {
+		final long[] appended = new long[appendedSize];
+		int count = 0;
+		for (final long key : appendedKeys) {
+			if (key != 0L) {
+				appended[count++] = key;
+			}
+		}
+		Arrays.sort(appended);
+
+		// merge the sorted entries with the sorted appended keys
+		final long[] keys = new long[sortedSize + appendedSize];
+		final int[] values = new int[keys.length];
+		count = 0;
+		for (int sorted = 0, added = 0; sorted < sortedSize || added < appended.length;) {
+			final long sortedKey = sorted < sortedSize ? entries.getLong(sorted * ENTRY_SIZE)
+					: Long.MAX_VALUE;
+			if (added < appended.length && (sorted == sortedSize
+					|| appended[added] < sortedKey)) {
+				keys[count] = appended[added++];
+				values[count] = find(keys[count]);
+			} else {
+				keys[count] = sortedKey;
+				values[count] = entries.getInt(sorted++ * ENTRY_SIZE + Long.BYTES);
+			}
+			++count;
+		}
+		if (count > maxEntries) {
+			count = keepDeepest(keys, values, maxEntries - maxEntries / 4);
+		}
+
+		final Path next = getFile(generation + 1);
+		final Path temporary = next.resolveSibling(next.getFileName() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(temporary)) {
+			write(keys, values, count, out);
+		}
+		Files.move(temporary, next, StandardCopyOption.ATOMIC_MOVE);
+		if (log != null) {
+			log.close();
+		}
+		++generation;
+		appendedKeys = new long[INITIAL_CAPACITY];
+		appendedEntries = new int[INITIAL_CAPACITY];
+		appendedSize = 0;
+		map();
+		openLog();
+		deleteOldGenerations();
+	}
+
+	/**
+	 * Keeps the <tt>keep</tt> entries with the most empty cells at the front of
+	 * the sorted <tt>keys</tt> and <tt>values</tt>, in key order, and returns
+	 * their number. Of the entries with the fewest empty cells kept, the
+	 * first ones are kept.
+	 */
+	private static int keepDeepest(final long[] keys, final int[] values, final int keep) {
+		final int[] counts = new int[BitBoard.SIZE + 1];
+		for (final int value : values) {
+			++counts[getEmpties(value)];
+		}
+		// the entries with more empty cells than the threshold are all kept
+		int threshold = BitBoard.SIZE;
+		int above = 0;
+		while (above + counts[threshold] <= keep) {
+			above += counts[threshold--];
+		}
+		int atThreshold = keep - above;
+		int count = 0;
+		for (int i = 0; i < keys.length; ++i) {
+			final int empties = getEmpties(values[i]);
+			if (empties > threshold || empties == threshold && atThreshold-- > 0) {
+				keys[count] = keys[i];
+				values[count++] = values[i];
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of positions in the cache
+	 *
+	 * @return the number of entries
+	 */
+	public synchronized int size() {
+		return sortedSize + appendedSize;
+	}
+
+	/**
+	 * Returns the number of empty cells from which on solved positions are
+	 * cached
+	 *
+	 * @return the smallest number of empty cells of the cached positions
+	 */
+	public int getMinEmpties() {
+		return minEmpties;
+	}
+
+	/**
+	 * Returns whether the cache is in use, i.e. its file has not failed to be
+	 * written
+	 *
+	 * @return whether the cache is looked up and added to
+	 */
+	public synchronized boolean isEnabled() {
+		return !disabled;
+	}
+
+	/**
+	 * Returns the file of the current generation of the cache
+	 *
+	 * @return the file the entries are read from and appended to
+	 */
+	public synchronized Path getFile() {
+		return getFile(generation);
+	}
+
+	/**
+	 * Compacts the cache if it has grown beyond its maximum number of entries,
+	 * and closes its file. The entries appended so far are otherwise merged
+	 * when the cache is opened again. A failed compaction is logged and
+	 * disables the cache.
+	 *
+	 * @throws IOException
+	 *             if the file cannot be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!disabled && size() > maxEntries) {
+			try {
+				compact();
+			} catch (final IOException e) {
+				disable(e);
+			}
+		}
+		log.close();
+	}
+
+	/**
+	 * Returns the final disc differential of a probed entry
+	 *
+	 * @param entry
+	 *            the entry
+	 * @return the final disc differential for the player to move
+	 */
+	public static int getScore(final int entry) {
+		return (byte) entry;
+	}
+
+	/**
+	 * Returns the best move of a probed entry
+	 *
+	 * @param entry
+	 *            the entry
+	 * @return the index of the cell of the best move, {@link GameMove#NO_MOVE}
+	 *         for none
+	 */
+	public static int getMove(final int entry) {
+		final int move = entry >>> MOVE_SHIFT & 0xff;
+		return move == NO_MOVE ? GameMove.NO_MOVE : move;
+	}
+
+	/**
+	 * Returns the number of empty cells of the position of a probed entry
+	 *
+	 * @param entry
+	 *            the entry
+	 * @return the number of empty cells
+	 */
+	public static int getEmpties(final int entry) {
+		return entry >>> EMPTIES_SHIFT & 0xff;
+	}
+
+	private static long getKey(final long own, final long opponent, final int symmetry) {
+		return Zobrist.hash(Symmetry.transform(own, symmetry), Symmetry.transform(opponent,
+				symmetry), Player.BLACK);
+	}
+
+	/**
+	 * Writes a cache file with the first <tt>count</tt> sorted entries given
+	 * and no appended ones
+	 */
+	private static void write(final long[] keys, final int[] values, final int count,
+			final OutputStream out) throws IOException {
+		final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(count);
+		for (int i = 0; i < count; ++i) {
+			data.writeLong(keys[i]);
+			data.writeInt(values[i]);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Maps the file into memory, returns the number of complete entries
+	 * appended after the sorted ones
+	 */
+	private int map() throws IOException {
+		try (FileChannel channel = FileChannel.open(getFile(), StandardOpenOption.READ)) {
+			final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size());
+			if (buffer.limit() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+				throw new IOException("Not an endgame cache");
+			}
+			final int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported endgame cache version " + version);
+			}
+			sortedSize = buffer.getInt();
+			if (buffer.limit() < HEADER_SIZE + (long) sortedSize * ENTRY_SIZE) {
+				throw new IOException("The endgame cache is truncated");
+			}
+			entries = buffer.slice();
+			return entries.limit() / ENTRY_SIZE - sortedSize;
+		}
+	}
+
+	private void openLog() throws IOException {
+		log = FileChannel.open(getFile(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	private Path getFile(final int generation) {
+		return file.resolveSibling(file.getFileName() + "." + generation);
+	}
+
+	/**
+	 * Returns the number of the last generation of the cache, -1 if there is
+	 * none
+	 */
+	private int findGeneration() throws IOException {
+		int result = -1;
+		final Path directory = file.toAbsolutePath().getParent();
+		final String prefix = file.getFileName() + ".";
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*")) {
+			for (final Path path : files) {
+				final String suffix = path.getFileName().toString().substring(prefix.length());
+				if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+					result = Math.max(result, Integer.parseInt(suffix));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Deletes the files of the earlier generations. A file that is still
+	 * mapped cannot be deleted on some platforms, and is left for the next
+	 * time the cache is opened.
+	 */
+	private void deleteOldGenerations() {
+		for (int old = generation - 1; old >= 0; --old) {
+			try {
+				Files.deleteIfExists(getFile(old));
+			} catch (final IOException e) {
+				LOGGER.log(Level.FINE, "Cannot delete " + getFile(old) + " yet", e);
+			}
+		}
+	}
+
+	/**
+	 * Logs a failure of the file and stops using the cache
+	 */
+	private void disable(final IOException e) {
+		LOGGER.log(Level.WARNING, "The endgame cache " + getFile() + " is disabled", e);
+		disabled = true;
+		try {
+			log.close();
+		} catch (final IOException closeFailure) {
+			e.addSuppressed(closeFailure);
+		}
+	}
+
+	/**
+	 * Adds an entry to the table of appended entries, which is made twice as
+	 * large once it is half full
+	 */
+	private void put(final long key, final int entry) {
+		if (2 * (appendedSize + 1) > appendedKeys.length) {
+			final long[] keys = appendedKeys;
+			final int[] entries = appendedEntries;
+			appendedKeys = new long[2 * keys.length];
+			appendedEntries = new int[2 * keys.length];
+			for (int i = 0; i < keys.length; ++i) {
+				if (keys[i] != 0L) {
+					insert(keys[i], entries[i]);
+				}
+			}
+		}
+		insert(key, entry);
+		++appendedSize;
+	}
+
+	private void insert(final long key, final int entry) {
+		final int mask = appendedKeys.length - 1;
+		int slot = (int) key & mask;
+		while (appendedKeys[slot] != 0L) {
+			slot = (slot + 1) & mask;
+		}
+		appendedKeys[slot] = key;
+		appendedEntries[slot] = entry;
+	}
+
+	/**
+	 * Looks up the entry with the canonical <tt>key</tt> given, among the
+	 * appended entries then among the sorted ones
+	 */
+	private int find(final long key) {
+		final int mask = appendedKeys.length - 1;
+		for (int slot = (int) key & mask; appendedKeys[slot] != 0L; slot = (slot + 1) & mask) {
+			if (appendedKeys[slot] == key) {
+				return appendedEntries[slot];
+			}
+		}
+		int low = 0;
+		int high = sortedSize - 1;
+		while (low <= high) {
+			final int middle = (low + high) >>> 1;
+			final long middleKey = entries.getLong(middle * ENTRY_SIZE);
+			if (middleKey < key) {
+				low = middle + 1;
+			} else if (middleKey > key) {
+				high = middle - 1;
+			} else {
+				return entries.getInt(middle * ENTRY_SIZE + Long.BYTES);
+			}
+		}
+		return MISS;
+	}
+
+}
@@ -0,0 +1,571 @@
+package edu.depauw.csc232.reversi;
+
+import edu.depauw.csc232.reversi.model.BitBoard;
+import edu.depauw.csc232.reversi.move.FlipCalculator;
+import edu.depauw.csc232.reversi.move.MoveGenerator;
+
+/**
+ * Finds the exact final disc differential of a position, searching every line
+ * to the end of the game. The positions are passed around as the discs of the
+ * player to move and of the opponent, so the search does no allocation: the
+ * move lists are kept per number of empty cells, and the last four empty
+ * cells are played by dedicated methods without any move generation.
+ *
+ * Far from the end the moves that leave the opponent with the fewest replies
+ * are searched first (fastest first); close to the end the moves in regions
+ * with an odd number of empty cells are searched first (parity).
+ *
+ */
+public class EndgameSolver {
+
+	/**
+	 * A score below all the final disc differentials, {@value}
+	 */
+	public static final int NO_SCORE = -BitBoard.SIZE - 1;
+
+	/**
+	 * Fastest first ordering is used with more empty cells than this, parity
+	 * ordering otherwise, {@value}
+	 */
+	private static final int FASTEST_FIRST_EMPTIES = 7;
+
+	/**
+	 * The transposition table is only used with at least this many empty
+	 * cells, {@value}
+	 */
+	private static final int TABLE_EMPTIES = 9;
+
+	/**
+	 * The number of empty cells that are played by the dedicated methods,
+	 * {@value}
+	 */
+	private static final int LAST_EMPTIES = 4;
+
+	/**
+	 * The cache of solved positions is only used this many moves deep from
+	 * the root of a solve, where a hit saves the most and lookups are few,
+	 * {@value}
+	 */
+	private static final int CACHE_PLIES = 2;
+
+	/**
+	 * The number of nodes visited between two checks of the clock, minus one,
+	 * {@value}
+	 */
+	private static final int TIME_CHECK_INTERVAL = 0x3fff;
+
+	/**
+	 * The cells of the four quadrants of the board, used for the parity
+	 * ordering
+	 */
+	private static final long[] QUADRANTS = { 0x000000000f0f0f0fL, 0x00000000f0f0f0f0L,
+			0x0f0f0f0f00000000L, 0xf0f0f0f000000000L };
+
+	private static final long CORNERS = 0x8100000000000081L;
+
+	private final TranspositionTable table;
+
+	private EndgameCache cache;
+
+	private final int[][] moves;
+
+	private final long[][] flips;
+
+	private final int[][] scores;
+
+	private final int[] lastCells;
+
+	private long deadline;
+
+	private long nodes;
+
+	private boolean aborted;
+
+	private int rootEmpties;
+
+	private int bestMove;
+
+	/**
+	 * Creates a new endgame solver
+	 *
+	 * @param table
+	 *            the table the exact results are stored in, shared by all the
+	 *            solves
+	 */
+	public EndgameSolver(final TranspositionTable table) {
+		this.table = table;
+		moves = new int[BitBoard.SIZE + 1][BitBoard.SIZE];
+		flips = new long[BitBoard.SIZE + 1][BitBoard.SIZE];
+		scores = new int[BitBoard.SIZE + 1][BitBoard.SIZE];
+		lastCells = new int[LAST_EMPTIES];
+	}
+
+	/**
+	 * Sets the cache of solved positions that is looked up before searching a
+	 * position with enough empty cells within the first few moves of a solve,
+	 * and that the exact results of such positions are added to
+	 *
+	 * @param cache
+	 *            the cache shared across games, <tt>null</tt> for none
+	 */
+	public void setCache(final EndgameCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Returns the exact final disc differential of the position given, for
+	 * the player to move. Empty cells at the end of the game go to the
+	 * winner.
+	 *
+	 * @param own
+	 *            the discs of the player to move
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @param deadline
+	 *            the value of {@link System#nanoTime()} at which the solve is
+	 *            given up
+	 * @return the final disc differential, meaningless if the solve has been
+	 *         aborted
+	 */
+	public int solve(final long own, final long opponent, final long deadline) {
+		return solve(own, opponent, NO_SCORE, -NO_SCORE, deadline);
+	}
+
+	/**
+	 * Returns the final disc differential of the position given, for the
+	 * player to move, if it is within the window given. Otherwise the result
+	 * is only a bound: at most <tt>alpha</tt> or at least <tt>beta</tt>.
+	 *
+	 * @param own
+	 *            the discs of the player to move
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @param alpha
+	 *            the lower end of the window
+	 * @param beta
+	 *            the upper end of the window
+	 * @param deadline
+	 *            the value of {@link System#nanoTime()} at which the solve is
+	 *            given up
+	 * @return the final disc differential, or a bound of it
+	 */
+	public int solve(final long own, final long opponent, final int alpha, final int beta,
+			final long deadline) {
+		this.deadline = deadline;
+		nodes = 0;
+		aborted = false;
+		bestMove = GameMove.NO_MOVE;
+		table.newSearch();
+		rootEmpties = Long.bitCount(~(own | opponent));
+		return search(own, opponent, alpha, beta, rootEmpties, true);
+	}
+
+	/**
+	 * Returns whether the player to move wins, loses or draws the position
+	 * given. This is a single null window search around zero, much cheaper
+	 * than an exact solve.
+	 *
+	 * @param own
+	 *            the discs of the player to move
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @param deadline
+	 *            the value of {@link System#nanoTime()} at which the solve is
+	 *            given up
+	 * @return 1 for a win, 0 for a draw and -1 for a loss, meaningless if the
+	 *         solve has been aborted
+	 */
+	public int solveWinLossDraw(final long own, final long opponent, final long deadline) {
+		return Integer.signum(solve(own, opponent, -1, 1, deadline));
+	}
+
+	/**
+	 * Returns the best move found by the last solve
+	 *
+	 * @return the index of the cell of the best move, {@link GameMove#NO_MOVE}
+	 *         if the player to move has to pass
+	 */
+	public int getBestMove() {
+		return bestMove;
+	}
+
+	/**
+	 * Returns the number of nodes visited by the last solve
+	 *
+	 * @return the number of nodes visited
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns whether the last solve has run out of time
+	 *
+	 * @return whether the last solve has been given up
+	 */
+	public boolean isAborted() {
+		return aborted;
+	}
+
+	private int search(final long own, final long opponent, int alpha, final int beta,
+			final int empties, final boolean root) {
+		if (empties <= LAST_EMPTIES && !root) {
+			return searchLast(own, opponent, alpha, beta, empties);
+		}
+		++nodes;
+		if ((nodes & TIME_CHECK_INTERVAL) == 0 && System.nanoTime() > deadline) {
+			aborted = true;
+		}
+		if (aborted) {
+			return 0;
+		}
+
+		final long moveCells = MoveGenerator.getMoves(own, opponent);
+		if (moveCells == 0) {
+			if (!MoveGenerator.hasMoves(opponent, own)) {
+				return getFinalScore(own, opponent, empties);
+			}
+			return -search(opponent, own, -beta, -alpha, empties, false);
+		}
+
+		final boolean useCache = cache != null && rootEmpties - empties <= CACHE_PLIES
+				&& empties >= cache.getMinEmpties();
+		if (useCache) {
+			final int entry = cache.probe(own, opponent);
+			if (entry != EndgameCache.MISS) {
+				if (root) {
+					bestMove = EndgameCache.getMove(entry);
+				}
+				return EndgameCache.getScore(entry);
+			}
+		}
+
+		final boolean useTable = empties >= TABLE_EMPTIES;
+		final long hash = useTable ? hash(own, opponent) : 0L;
+		int hashMove = GameMove.NO_MOVE;
+		if (useTable) {
+			final long entry = table.probe(hash);
+			if (entry != TranspositionTable.MISS) {
+				final int score = TranspositionTable.getScore(entry);
+				final int bound = TranspositionTable.getBound(entry);
+				if (!root
+						&& (bound == TranspositionTable.BOUND_EXACT
+								|| (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+								|| (bound == TranspositionTable.BOUND_UPPER && score <= alpha))) {
+					return score;
+				}
+				hashMove = TranspositionTable.getMove(entry);
+			}
+		}
+
+		final int originalAlpha = alpha;
+		final int count = orderMoves(own, opponent, moveCells, empties, hashMove);
+		final int[] levelMoves = moves[empties];
+		final long[] levelFlips = flips[empties];
+		int bestValue = NO_SCORE;
+		int bestCell = GameMove.NO_MOVE;
+		for (int i = 0; i < count; ++i) {
+			final int cellIndex = levelMoves[i];
+			final long flipped = levelFlips[i];
+			final long nextOwn = opponent ^ flipped;
+			final long nextOpponent = own | flipped | BitBoard.bit(cellIndex);
+			int value;
+			if (i == 0) {
+				value = -search(nextOwn, nextOpponent, -beta, -alpha, empties - 1, false);
+			} else {
+				value = -search(nextOwn, nextOpponent, -alpha - 1, -alpha, empties - 1, false);
+				if (value > alpha && value < beta) {
+					value = -search(nextOwn, nextOpponent, -beta, -value, empties - 1, false);
+				}
+			}
+			if (aborted) {
+				return 0;
+			}
+			if (value > bestValue) {
+				bestValue = value;
+				bestCell = cellIndex;
+				if (value > alpha) {
+					alpha = value;
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+
+		if (useTable) {
+			final int bound;
+			if (bestValue <= originalAlpha) {
+				bound = TranspositionTable.BOUND_UPPER;
+			} else if (bestValue >= beta) {
+				bound = TranspositionTable.BOUND_LOWER;
+			} else {
+				bound = TranspositionTable.BOUND_EXACT;
+			}
+			table.store(hash, empties, bound, bestValue, bestCell);
+		}
+		// only a score inside the window is exact
+		if (useCache && bestValue > originalAlpha && bestValue < beta) {
+			cache.store(own, opponent, bestValue, bestCell);
+		}
+		if (root) {
+			bestMove = bestCell;
+		}
+		return bestValue;
+	}
+
+	/**
+	 * Orders the <tt>moveCells</tt> of the position, computing their flips on
+	 * the way. Returns the number of moves.
+	 */
+	private int orderMoves(final long own, final long opponent, long moveCells,
+			final int empties, final int hashMove) {
+		final int[] levelMoves = moves[empties];
+		final long[] levelFlips = flips[empties];
+		final int[] levelScores = scores[empties];
+		final long oddCells = getOddQuadrants(~(own | opponent));
+		int count = 0;
+		while (moveCells != 0) {
+			final int cellIndex = Long.numberOfTrailingZeros(moveCells);
+			final long cell = moveCells & -moveCells;
+			moveCells &= moveCells - 1;
+			final long flipped = FlipCalculator.getFlips(cellIndex, own, opponent);
+			int score;
+			if (cellIndex == hashMove) {
+				score = Integer.MIN_VALUE;
+			} else if (empties > FASTEST_FIRST_EMPTIES) {
+				// the fewer replies the better, corners and parity break ties
+				score = MoveGenerator.getMoveCount(opponent ^ flipped, own | flipped | cell) << 2;
+				if ((cell & CORNERS) != 0) {
+					score -= 2;
+				}
+				if ((cell & oddCells) != 0) {
+					--score;
+				}
+			} else {
+				score = (cell & oddCells) != 0 ? 0 : 1;
+			}
+			// insertion sort, lowest score first
+			int i = count;
+			while (i > 0 && levelScores[i - 1] > score) {
+				levelMoves[i] = levelMoves[i - 1];
+				levelFlips[i] = levelFlips[i - 1];
+				levelScores[i] = levelScores[i - 1];
+				--i;
+			}
+			levelMoves[i] = cellIndex;
+			levelFlips[i] = flipped;
+			levelScores[i] = score;
+			++count;
+		}
+		return count;
+	}
+
+	/**
+	 * Plays the last few empty cells without move generation, the cells in
+	 * quadrants with an odd number of empty cells first
+	 */
+	private int searchLast(final long own, final long opponent, final int alpha,
+			final int beta, final int empties) {
+		long empty = ~(own | opponent);
+		final long oddCells = getOddQuadrants(empty);
+		int count = 0;
+		for (long cells = empty & oddCells; cells != 0; cells &= cells - 1) {
+			lastCells[count++] = Long.numberOfTrailingZeros(cells);
+		}
+		for (long cells = empty & ~oddCells; cells != 0; cells &= cells - 1) {
+			lastCells[count++] = Long.numberOfTrailingZeros(cells);
+		}
+		switch (empties) {
+		case 4:
+			return solve4(own, opponent, alpha, beta, lastCells[0], lastCells[1], lastCells[2],
+					lastCells[3], false);
+		case 3:
+			return solve3(own, opponent, alpha, beta, lastCells[0], lastCells[1], lastCells[2],
+					false);
+		case 2:
+			return solve2(own, opponent, alpha, beta, lastCells[0], lastCells[1], false);
+		case 1:
+			return solve1(own, opponent, lastCells[0]);
+		default:
+			++nodes;
+			return getFinalScore(own, opponent, 0);
+		}
+	}
+
+	private int solve4(final long own, final long opponent, int alpha, final int beta,
+			final int c1, final int c2, final int c3, final int c4, final boolean passed) {
+		++nodes;
+		int bestValue = NO_SCORE;
+		long flipped;
+		if ((flipped = FlipCalculator.getFlips(c1, own, opponent)) != 0) {
+			final int value = -solve3(opponent ^ flipped, own | flipped | BitBoard.bit(c1),
+					-beta, -alpha, c2, c3, c4, false);
+			if (value >= beta) {
+				return value;
+			}
+			bestValue = value;
+			alpha = Math.max(alpha, value);
+		}
+		if ((flipped = FlipCalculator.getFlips(c2, own, opponent)) != 0) {
+			final int value = -solve3(opponent ^ flipped, own | flipped | BitBoard.bit(c2),
+					-beta, -alpha, c1, c3, c4, false);
+			if (value >= beta) {
+				return value;
+			}
+			bestValue = Math.max(bestValue, value);
+			alpha = Math.max(alpha, value);
+		}
+		if ((flipped = FlipCalculator.getFlips(c3, own, opponent)) != 0) {
+			final int value = -solve3(opponent ^ flipped, own | flipped | BitBoard.bit(c3),
+					-beta, -alpha, c1, c2, c4, false);
+			if (value >= beta) {
+				return value;
+			}
+			bestValue = Math.max(bestValue, value);
+			alpha = Math.max(alpha, value);
+		}
+		if ((flipped = FlipCalculator.getFlips(c4, own, opponent)) != 0) {
+			final int value = -solve3(opponent ^ flipped, own | flipped | BitBoard.bit(c4),
+					-beta, -alpha, c1, c2, c3, false);
+			bestValue = Math.max(bestValue, value);
+		}
+		if (bestValue == NO_SCORE) {
+			if (passed) {
+				return getFinalScore(own, opponent, 4);
+			}
+			return -solve4(opponent, own, -beta, -alpha, c1, c2, c3, c4, true);
+		}
+		return bestValue;
+	}
+
+	private int solve3(final long own, final long opponent, int alpha, final int beta,
+			final int c1, final int c2, final int c3, final boolean passed) {
+		++nodes;
+		int bestValue = NO_SCORE;
+		long flipped;
+		if ((flipped = FlipCalculator.getFlips(c1, own, opponent)) != 0) {
+			final int value = -solve2(opponent ^ flipped, own | flipped | BitBoard.bit(c1),
+					-beta, -alpha, c2, c3, false);
+			if (value >= beta) {
+				return value;
+			}
+			bestValue = value;
+			alpha = Math.max(alpha, value);
+		}
+		if ((flipped = FlipCalculator.getFlips(c2, own, opponent)) != 0) {
+			final int value = -solve2(opponent ^ flipped, own | flipped | BitBoard.bit(c2),
+					-beta, -alpha, c1, c3, false);
+			if (value >= beta) {
+				return value;
+			}
+			bestValue = Math.max(bestValue, value);
+			alpha = Math.max(alpha, value);
+		}
+		if ((flipped = FlipCalculator.getFlips(c3, own, opponent)) != 0) {
+			final int value = -solve2(opponent ^ flipped, own | flipped | BitBoard.bit(c3),
+					-beta, -alpha, c1, c2, false);
+			bestValue = Math.max(bestValue, value);
+		}
+		if (bestValue == NO_SCORE) {
+			if (passed) {
+				return getFinalScore(own, opponent, 3);
+			}
+			return -solve3(opponent, own, -beta, -alpha, c1, c2, c3, true);
+		}
+		return bestValue;
+	}
+
+	private int solve2(final long own, final long opponent, final int alpha, final int beta,
+			final int c1, final int c2, final boolean passed) {
+		++nodes;
+		int bestValue = NO_SCORE;
+		long flipped;
+		if ((flipped = FlipCalculator.getFlips(c1, own, opponent)) != 0) {
+			bestValue = -solve1(opponent ^ flipped, own | flipped | BitBoard.bit(c1), c2);
+			if (bestValue >= beta) {
+				return bestValue;
+			}
+		}
+		if ((flipped = FlipCalculator.getFlips(c2, own, opponent)) != 0) {
+			bestValue = Math.max(bestValue,
+					-solve1(opponent ^ flipped, own | flipped | BitBoard.bit(c2), c1));
+		}
+		if (bestValue == NO_SCORE) {
+			if (passed) {
+				return getFinalScore(own, opponent, 2);
+			}
+			return -solve2(opponent, own, -beta, -alpha, c1, c2, true);
+		}
+		return bestValue;
+	}
+
+	/**
+	 * Plays the last empty cell, by the player to move if possible, by the
+	 * opponent otherwise
+	 */
+	private int solve1(final long own, final long opponent, final int cellIndex) {
+		++nodes;
+		final int difference = Long.bitCount(own) - Long.bitCount(opponent);
+		final int ownFlips = Long.bitCount(FlipCalculator.getFlips(cellIndex, own, opponent));
+		if (ownFlips != 0) {
+			return difference + 2 * ownFlips + 1;
+		}
+		final int opponentFlips = Long.bitCount(FlipCalculator
+				.getFlips(cellIndex, opponent, own));
+		if (opponentFlips != 0) {
+			return difference - 2 * opponentFlips - 1;
+		}
+		return getFinalScore(own, opponent, 1);
+	}
+
+	/**
+	 * Returns the disc differential of a position where neither player can
+	 * move. The empty cells go to the winner.
+	 *
+	 * @param own
+	 *            the discs of the player to move
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @param empties
+	 *            the number of empty cells
+	 * @return the final disc differential for the player to move
+	 */
+	public static int getFinalScore(final long own, final long opponent, final int empties) {
+		final int difference = Long.bitCount(own) - Long.bitCount(opponent);
+		if (difference > 0) {
+			return difference + empties;
+		}
+		if (difference < 0) {
+			return difference - empties;
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the cells of the quadrants of the board that hold an odd number
+	 * of the <tt>empty</tt> cells
+	 */
+	private static long getOddQuadrants(final long empty) {
+		long result = 0L;
+		for (final long quadrant : QUADRANTS) {
+			if ((Long.bitCount(empty & quadrant) & 1) != 0) {
+				result |= quadrant;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Hashes the discs of the player to move and of the opponent. Unlike the
+	 * Zobrist hash this needs no update on every move, which the endgame
+	 * search does not keep a position for.
+	 */
+	private static long hash(final long own, final long opponent) {
+		long value = own * 0x9e3779b97f4a7c15L ^ Long.rotateLeft(opponent, 29)
+				* 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 32)) * 0x94d049bb133111ebL;
+		return value ^ (value >>> 29);
+	}
+
+}
@@ -0,0 +1,132 @@
+package edu.depauw.csc232.reversi;
+
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
+
+/**
+ * A fixed-size, direct-mapped cache of the values of another
+ * {@link BoardEvaluator}, keyed by the Zobrist hash of the position and the
+ * side to move. Siblings in the search often transpose into one another, and
+ * a position found in the cache is not evaluated again. The cache is separate
+ * from the {@link TranspositionTable}, so its entries are never pushed out by
+ * search results.
+ *
+ * Each entry is a single <tt>long</tt>: the upper half of the hash, which
+ * together with the slot number identifies the position, XOR-ed with the
+ * value, and the value. The cache may thus be shared by several search threads
+ * without locking: a VM may write a <tt>long</tt> in two halves, but an entry
+ * torn by a concurrent store no longer matches its key and is read as a miss.
+ * The counters are not synchronized and are only approximate in that case.
+ *
+ */
+public class EvaluationCache implements BoardEvaluator {
+
+	/**
+	 * The default size of the cache in bytes, small enough to stay in the
+	 * processor caches: most hits come from nearby siblings, and a larger
+	 * cache costs more in memory stalls than it saves in evaluations, {@value}
+	 */
+	public static final long DEFAULT_MEMORY = 64L << 10;
+
+	/**
+	 * The number of bytes taken by one entry, {@value}
+	 */
+	private static final int ENTRY_SIZE = 8;
+
+	private static final long KEY_MASK = 0xffffffff00000000L;
+
+	private final BoardEvaluator evaluator;
+
+	private final long[] entries;
+
+	private final int mask;
+
+	private long probes;
+
+	private long hits;
+
+	/**
+	 * Creates a new cache of the values of the <tt>evaluator</tt> given, that
+	 * uses at most <tt>memory</tt> bytes. The number of entries is rounded down
+	 * to a power of two.
+	 *
+	 * @param evaluator
+	 *            the evaluator whose values are cached
+	 * @param memory
+	 *            the memory budget of the cache in bytes
+	 */
+	public EvaluationCache(final BoardEvaluator evaluator, final long memory) {
+		this.evaluator = evaluator;
+		final long requested = Math.max(1, memory / ENTRY_SIZE);
+		final int size = (int) Long.highestOneBit(Math.min(requested, 1L << 30));
+		entries = new long[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getValue(final Position board, final Player player) {
+		++probes;
+		final long hash = board.getHash(player);
+		final int index = (int) hash & mask;
+		final long entry = entries[index];
+		if (((entry ^ entry << 32) & KEY_MASK) == (hash & KEY_MASK) && entry != 0L) {
+			++hits;
+			return (int) entry;
+		}
+		final int value = evaluator.getValue(board, player);
+		final long unsigned = value & 0xffffffffL;
+		entries[index] = ((hash ^ unsigned << 32) & KEY_MASK) | unsigned;
+		return value;
+	}
+
+	/**
+	 * Returns the evaluator whose values are cached
+	 *
+	 * @return the evaluator of the positions missing from the cache
+	 */
+	public BoardEvaluator getEvaluator() {
+		return evaluator;
+	}
+
+	/**
+	 * Removes all the entries from the cache and resets the counters
+	 */
+	public void clear() {
+		for (int i = 0; i < entries.length; ++i) {
+			entries[i] = 0L;
+		}
+		probes = 0;
+		hits = 0;
+	}
+
+	/**
+	 * Returns the number of entries in the cache
+	 *
+	 * @return the number of entries in the cache
+	 */
+	public int size() {
+		return entries.length;
+	}
+
+	/**
+	 * Returns the number of positions evaluated through the cache
+	 *
+	 * @return the number of calls to {@link #getValue(Position, Player)}
+	 */
+	public long getProbes() {
+		return probes;
+	}
+
+	/**
+	 * Returns the number of positions whose value was found in the cache
+	 *
+	 * @return the number of evaluations skipped
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+}
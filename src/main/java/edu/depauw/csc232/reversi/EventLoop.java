@@ -1,26 +1,49 @@
 package edu.depauw.csc232.reversi;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * The main class, that is used for starting the application
  * 
+ * Usage: <tt>EventLoop [book|-] [endgame cache]</tt>
+ * 
  * @author martin
  * 
  */
 public class EventLoop {
 
+	/**
+	 * The argument that stands for no opening book, {@value}
+	 */
+	private static final String NO_FILE = "-";
+
 	/**
 	 * Loops until the game finishes with one of the two players winning it.
 	 * 
 	 * @param args
+	 *            the optional opening book file, see {@link OpeningBook}, or
+	 *            {@value #NO_FILE} for none, and the optional endgame cache
+	 *            file, see {@link EndgameCache}
+	 * @throws IOException
+	 *             if the opening book or the endgame cache cannot be read
 	 */
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 		final Game game = new Game();
+		if (args.length > 0 && !args[0].equals(NO_FILE)) {
+			game.setOpeningBook(OpeningBook.map(Paths.get(args[0])));
+		}
+		final EndgameCache endgameCache = args.length > 1 ? EndgameCache.open(Paths.get(
+				args[1])) : null;
+		game.setEndgameCache(endgameCache);
 		while (!game.isFinished()) {
 			game.awaitInput();
 			game.nextMove();
 		}
 		game.showWinner();
+		if (endgameCache != null) {
+			endgameCache.close();
+		}
 	}
 
 }
@@ -65,6 +65,28 @@ public class Game implements BoardEventsListener, GameSolverCallback {
 		gameSolver = new GameSolver();
 	}
 
+	/**
+	 * Sets the opening book that the AI looks its positions up in before
+	 * searching them
+	 * 
+	 * @param openingBook
+	 *            the opening book, <tt>null</tt> for none
+	 */
+	public void setOpeningBook(final OpeningBook openingBook) {
+		gameSolver.setOpeningBook(openingBook);
+	}
+
+	/**
+	 * Sets the cache of solved endgame positions that the AI shares with
+	 * earlier and later games
+	 * 
+	 * @param endgameCache
+	 *            the endgame cache, <tt>null</tt> for none
+	 */
+	public void setEndgameCache(final EndgameCache endgameCache) {
+		gameSolver.setEndgameCache(endgameCache);
+	}
+
 	/**
 	 * Returns whether or not the game has reached its terminal state and no
 	 * further moves can be made.
@@ -78,12 +100,13 @@ public class Game implements BoardEventsListener, GameSolverCallback {
 
 	/**
 	 * Awaits player input and updates the model and the UI appropriately
-	 * afterwards.
+	 * afterwards. Meanwhile the solver ponders its replies.
 	 */
 	public void awaitInput() {
 		currentPlayer = Player.BLACK;
 		if (board.hasNextMove(currentPlayer)) {
 			board.nextMove(currentPlayer);
+			gameSolver.startPondering(board, currentPlayer);
 			turnSwitcher.startTurn();
 		}
 	}
@@ -106,6 +129,7 @@ public class Game implements BoardEventsListener, GameSolverCallback {
 	@Override
 	public void onCellSelected(final int cellIndex) {
 		if (isLegalMove(cellIndex)) {
+			gameSolver.stopPondering();
 			board.takeCell(cellIndex, currentPlayer);
 			turnSwitcher.endTurn();
 		}
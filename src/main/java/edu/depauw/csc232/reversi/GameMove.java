@@ -1,68 +1,50 @@
 package edu.depauw.csc232.reversi;
 
-import java.util.Collection;
-
-import edu.depauw.csc232.reversi.model.Board;
-import edu.depauw.csc232.reversi.model.Cell;
-import edu.depauw.csc232.reversi.model.Player;
-
 public class GameMove implements Comparable<GameMove> {
 
+	/**
+	 * The cell index of a move that has not been chosen yet, {@value}
+	 */
+	public static final int NO_MOVE = -1;
+
 	private int value;
 
-	private Board board;
+	private int cellIndex;
 
 	/**
 	 * Creates a new {@link GameMove} from the values specified
 	 * 
 	 * @param value
 	 *            the value of the board as computed by {@link BoardEvaluator}
-	 * @param board
-	 *            the board that represents this move
+	 * @param cellIndex
+	 *            the index of the cell at which the disc of this move is placed
 	 */
-	public GameMove(final int value, final Board board) {
+	public GameMove(final int value, final int cellIndex) {
 		this.value = value;
-		this.board = board;
-	}
-
-	/**
-	 * Creates a new {@link GameMove} instance from the values specified
-	 * 
-	 * @param parameter
-	 *            a {@link GameSolverParameter} instance to be used
-	 * @param player
-	 *            the player that will make this move
-	 */
-	public GameMove(final GameSolverParameter parameter, final Player player) {
-		this.value = parameter.getValue(player);
-		this.board = parameter.board;
+		this.cellIndex = cellIndex;
 	}
 
 	/**
-	 * Gets the difference between the board in this move and the <tt>other</tt>
-	 * board given.
+	 * Sets the cell, associated with this move.
 	 * 
-	 * @param other
-	 *            the other board against which the current move is to be
-	 *            compared.
-	 * @return a collection, containing all the cells that differ from those in
-	 *         the <tt>other</tt> board supplied
+	 * @param cellIndex
+	 *            the index of the cell that is to be associated with this move.
+	 * @return the current {@link GameMove} instance to allow for method
+	 *         chaining
 	 */
-	public Collection<Cell> getDifference(final Board other) {
-		return board.getDifference(other);
+	public GameMove setCellIndex(final int cellIndex) {
+		this.cellIndex = cellIndex;
+		return this;
 	}
 
 	/**
-	 * Sets the board, associated with this move.
+	 * Returns the index of the cell, associated with this move
 	 * 
-	 * @param board
-	 *            the board that is to be associated with this move.
-	 * @return the current {@link GameMove} instance to allow for method
-	 *         chaining
+	 * @return the index of the cell at which the disc of this move is placed,
+	 *         {@link #NO_MOVE} if there is none
 	 */
-	public GameMove setBoard(final Board board) {
-		this.board = board;
-		return this;
+	public int getCellIndex() {
+		return cellIndex;
 	}
 
 	/**
@@ -1,38 +1,635 @@
 package edu.depauw.csc232.reversi;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import edu.depauw.csc232.reversi.listeners.GameSolverCallback;
+import edu.depauw.csc232.reversi.listeners.SearchProgressListener;
+import edu.depauw.csc232.reversi.model.BitBoard;
 import edu.depauw.csc232.reversi.model.Board;
+import edu.depauw.csc232.reversi.model.Cell;
 import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
 
+/**
+ * Finds the best move for either player with a negamax Principal Variation
+ * Search: all scores are seen from the point of view of the player to move,
+ * the first move of a node is searched with the full window and the others
+ * with a null window, which are only searched again if they turn out better.
+ *
+ */
 public class GameSolver {
 
 	/**
+	 * The time budget for a single move in milliseconds, {@value}
+	 */
+	public static final long DEFAULT_TIME_BUDGET = 1000;
+
+	/**
+	 * {@value}
+	 */
+	public static final int MAX_SEARCH_DEPTH = BitBoard.SIZE;
+
+	/**
+	 * The number of empty cells from which on positions are solved exactly,
+	 * {@value}
+	 */
+	public static final int DEFAULT_ENDGAME_EMPTIES = 16;
+
+	/**
+	 * The number of empty cells from which on positions are solved for a win,
+	 * a loss or a draw, {@value}
+	 */
+	public static final int DEFAULT_WIN_LOSS_DRAW_EMPTIES = DEFAULT_ENDGAME_EMPTIES + 4;
+
+	/**
+	 * A bound on all the scores, that can be negated without overflow,
+	 * {@value}
+	 */
+	private static final int INFINITY = Integer.MAX_VALUE;
+
+	/**
+	 * The half width of the first aspiration window, {@value}
+	 */
+	private static final int ASPIRATION_WINDOW = 64;
+
+	/**
+	 * The number of nodes visited between two checks of the clock, minus one,
 	 * {@value}
 	 */
-	private static final int MAX_LEVEL_SEARCH_DEPTH = 4;
+	private static final int TIME_CHECK_INTERVAL = 0x3ff;
 
 	private final ExecutorService executor;
 
+	/**
+	 * The evaluator of the leaves of the search, behind a cache of its values
+	 */
+	private volatile EvaluationCache evaluator;
+
+	private final TranspositionTable transpositionTable;
+
+	/**
+	 * The exact results of the endgame solver, which are kept apart from the
+	 * heuristic ones
+	 */
+	private final TranspositionTable endgameTable;
+
+	/**
+	 * The search state of each thread taking part in the search
+	 */
+	private final ThreadLocal<Searcher> searchers = ThreadLocal.withInitial(Searcher::new);
+
+	/**
+	 * The results of pondering, keyed by the hash of the position after each
+	 * move of the player who was thinking
+	 */
+	private final Map<Long, PonderedReply> ponderedReplies = new ConcurrentHashMap<>();
+
+	private volatile long evaluationCacheMemory;
+
+	private volatile long timeBudget;
+
+	private volatile int maxDepth;
+
+	private volatile int endgameEmpties;
+
+	private volatile int winLossDrawEmpties;
+
+	private volatile SearchMode searchMode;
+
+	private volatile SearchDriver searchDriver;
+
+	private volatile ForkJoinPool pool;
+
+	private volatile SearchProgressListener progressListener;
+
+	private volatile OpeningBook openingBook;
+
+	private volatile EndgameCache endgameCache;
+
+	private volatile long deadline;
+
+	private volatile boolean aborted;
+
+	private volatile boolean helpersStopped;
+
+	/**
+	 * The stop flag of the current pondering session, each session having its
+	 * own so that stopping one cannot be undone by starting the next,
+	 * <tt>null</tt> before the first one
+	 */
+	private AtomicBoolean ponderingStopped;
+
+	private Future<?> ponderingTask;
+
+	/**
+	 * The depth of the last iteration completed by the last search that did
+	 * not start from a pondered result, {@link Integer#MAX_VALUE} before the
+	 * first one
+	 */
+	private volatile int lastSearchDepth = Integer.MAX_VALUE;
+
 	private class GameSolverRunnable implements Runnable {
 
 		private final Board board;
 
+		private final Player player;
+
 		private final GameSolverCallback callback;
 
-		public GameSolverRunnable(final Board board, final GameSolverCallback callback) {
+		public GameSolverRunnable(final Board board, final Player player,
+				final GameSolverCallback callback) {
 			this.board = board;
+			this.player = player;
 			this.callback = callback;
 		}
 
 		@Override
 		public void run() {
-			final GameMove result = getOptimalMinMove(new GameSolverParameter(board,
-					Integer.MIN_VALUE, Integer.MAX_VALUE, 0));
-			callback.onOptimalMoveReceived(result.getDifference(board));
+			final GameMove result = getDeepestMove(board.getPosition(), player);
+			callback.onOptimalMoveReceived(getDifference(board, player, result.getCellIndex()));
+		}
+
+	}
+
+	/**
+	 * The best move found so far at a split root, shared by all the threads
+	 * searching its moves. Once a move fails high, the searches of its
+	 * siblings are cancelled.
+	 */
+	private static class SharedResult {
+
+		private final int alpha;
+
+		private final int beta;
+
+		private final LongAdder nodes = new LongAdder();
+
+		private int value;
+
+		private int cellIndex;
+
+		private volatile boolean depthLimitReached;
+
+		private volatile boolean cutoff;
+
+		SharedResult(final int alpha, final int beta, final int eldestValue,
+				final int eldestCellIndex) {
+			this.alpha = alpha;
+			this.beta = beta;
+			value = eldestValue;
+			cellIndex = eldestCellIndex;
+		}
+
+		/**
+		 * Returns the value a younger sibling has to beat to become the best
+		 * move
+		 */
+		synchronized int getAlpha() {
+			return Math.max(alpha, value);
+		}
+
+		synchronized void update(final int cellIndex, final int value) {
+			if (value > this.value) {
+				this.value = value;
+				this.cellIndex = cellIndex;
+				if (value >= beta) {
+					cutoff = true;
+				}
+			}
+		}
+
+		void addNodes(final long nodes, final boolean depthLimitReached) {
+			this.nodes.add(nodes);
+			if (depthLimitReached) {
+				this.depthLimitReached = true;
+			}
+		}
+
+	}
+
+	/**
+	 * Searches one of the younger siblings at a split root on its own copy of
+	 * the position
+	 */
+	private class RootMoveTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Position position;
+
+		private final Player player;
+
+		private final int cellIndex;
+
+		private final int beta;
+
+		private final int searchDepth;
+
+		private final SharedResult result;
+
+		RootMoveTask(final GameSolverParameter root, final Player player, final int cellIndex,
+				final int searchDepth, final SharedResult result) {
+			this.position = new Position(root.position);
+			this.player = player;
+			this.cellIndex = cellIndex;
+			this.beta = root.beta;
+			this.searchDepth = searchDepth;
+			this.result = result;
+		}
+
+		/**
+		 * Scouts the move with a null window at the best value finished so
+		 * far, and searches it again with the bound read afresh if it turns
+		 * out better
+		 */
+		@Override
+		protected void compute() {
+			if (result.cutoff) {
+				return;
+			}
+			final Searcher searcher = searchers.get();
+			searcher.helper = false;
+			searcher.split = result;
+			searcher.startIteration(searchDepth, GameMove.NO_MOVE);
+			try {
+				position.makeMove(cellIndex, player);
+				final Player opponent = Player.getOpponent(player);
+				final int alpha = result.getAlpha();
+				final GameSolverParameter root = new GameSolverParameter(position, evaluator,
+						alpha, beta, 0);
+				int value = -searcher.search(root.nextLevel(-alpha - 1, -alpha), opponent);
+				if (value > alpha && value < beta && !searcher.stopped) {
+					final int bound = Math.max(value, result.getAlpha());
+					if (bound < beta) {
+						value = -searcher.search(root.nextLevel(-beta, -bound), opponent);
+					}
+				}
+				if (!searcher.stopped) {
+					result.update(cellIndex, value);
+				}
+				result.addNodes(searcher.nodes, searcher.depthLimitReached);
+			} finally {
+				searcher.split = null;
+			}
+		}
+
+	}
+
+	/**
+	 * Runs an iterative deepening search of its own copy of the root until the
+	 * main search stops it. Helpers only share their results through the
+	 * transposition table (Lazy SMP): every other helper searches one level
+	 * deeper than the main search, so that the threads spread over the tree.
+	 */
+	private class HelperSearch implements Runnable {
+
+		private final Position position;
+
+		private final Player player;
+
+		private final int depthOffset;
+
+		HelperSearch(final Position root, final Player player, final int depthOffset) {
+			this.position = new Position(root);
+			this.player = player;
+			this.depthOffset = depthOffset;
+		}
+
+		@Override
+		public void run() {
+			final Searcher searcher = searchers.get();
+			searcher.helper = true;
+			searcher.ordering.clear();
+			int bestMove = GameMove.NO_MOVE;
+			for (int searchDepth = 1 + depthOffset; searchDepth <= maxDepth; ++searchDepth) {
+				searcher.startIteration(searchDepth, bestMove);
+				searcher.search(new GameSolverParameter(position, evaluator, -INFINITY, INFINITY,
+						0), player);
+				if (searcher.stopped || !searcher.depthLimitReached) {
+					break;
+				}
+				bestMove = searcher.bestRootMove;
+			}
+		}
+
+	}
+
+	/**
+	 * The reply found so far to one of the moves of the player who is
+	 * thinking, and the depth it has been searched to
+	 */
+	private static class PonderedReply {
+
+		private final Position position;
+
+		private GameMove move = new GameMove(0, GameMove.NO_MOVE);
+
+		private int depth;
+
+		/**
+		 * Whether the search has reached the end of the game on every line,
+		 * so that searching deeper would not change the move
+		 */
+		private boolean complete;
+
+		PonderedReply(final Position position) {
+			this.position = position;
+		}
+
+	}
+
+	/**
+	 * The state of the search on a single thread. The transposition table is
+	 * shared, the move ordering and the counters are not.
+	 */
+	private class Searcher {
+
+		private final MoveOrdering ordering = new MoveOrdering(MAX_SEARCH_DEPTH);
+
+		private final EndgameSolver endgameSolver = new EndgameSolver(endgameTable);
+
+		private int searchDepth;
+
+		private int rootMove;
+
+		private int bestRootMove;
+
+		private long nodes;
+
+		private boolean depthLimitReached;
+
+		private boolean stopped;
+
+		/**
+		 * Whether this thread is a Lazy SMP helper, which is stopped as soon
+		 * as the main search is done
+		 */
+		private boolean helper;
+
+		/**
+		 * The split root this thread is searching a move of, whose search is
+		 * given up once a sibling fails high, <tt>null</tt> for none
+		 */
+		private SharedResult split;
+
+		/**
+		 * The stop flag of the pondering session this thread is searching
+		 * for, which is set by {@link GameSolver#stopPondering()} rather than
+		 * by the clock, <tt>null</tt> if it is not pondering
+		 */
+		private AtomicBoolean pondering;
+
+		void startIteration(final int searchDepth, final int rootMove) {
+			this.searchDepth = searchDepth;
+			this.rootMove = rootMove;
+			bestRootMove = GameMove.NO_MOVE;
+			nodes = 0;
+			depthLimitReached = false;
+			stopped = false;
+		}
+
+		/**
+		 * Returns the score of the position for the <tt>player</tt> to move.
+		 * A score outside the window of the <tt>parameter</tt> is only a bound
+		 * of the actual score. At the root, the best move is kept in
+		 * {@link #bestRootMove}.
+		 */
+		private int search(final GameSolverParameter parameter, final Player player) {
+			if (isTimeUp()) {
+				return 0;
+			}
+			if (parameter.level == searchDepth) {
+				depthLimitReached = true;
+				return parameter.getScore(player);
+			}
+
+			final long moves = parameter.getNextMoves(player);
+			if (moves == 0) {
+				return skipTurn(parameter, player);
+			}
+
+			final long hash = parameter.getHash(player);
+			final long entry = transpositionTable.probe(hash);
+			if (isStoredResultUsable(parameter, entry)) {
+				return TranspositionTable.getScore(entry);
+			}
+
+			final Player opponent = Player.getOpponent(player);
+			int alpha = parameter.alpha;
+			int bestValue = -INFINITY;
+			int bestMove = GameMove.NO_MOVE;
+
+			final int count = ordering.orderMoves(moves, parameter.level,
+					getHashMove(parameter, entry), player);
+			for (int i = 0; i < count; ++i) {
+				if (i == 1 && isSplitPoint(parameter)) {
+					final SharedResult result = searchYoungerSiblings(parameter, player, alpha,
+							bestValue, bestMove, count);
+					bestValue = result.value;
+					bestMove = result.cellIndex;
+					break;
+				}
+				final int cellIndex = ordering.getMove(parameter.level, i);
+				parameter.makeMove(cellIndex, player);
+				final int value = searchChild(parameter, alpha, opponent, i == 0);
+				parameter.undoMove();
+				if (stopped) {
+					return bestValue;
+				}
+				if (value > bestValue) {
+					bestValue = value;
+					bestMove = cellIndex;
+					if (value > alpha) {
+						alpha = value;
+						if (alpha >= parameter.beta) {
+							ordering.onCutoff(cellIndex, parameter.level,
+									getRemainingDepth(parameter), player);
+							break;
+						}
+					}
+				}
+			}
+			if (stopped) {
+				return bestValue;
+			}
+
+			if (parameter.level == 0) {
+				bestRootMove = bestMove;
+			}
+			storeTable(parameter, hash, bestValue, bestMove);
+			return bestValue;
+		}
+
+		/**
+		 * Searches the child of the node of the <tt>parameter</tt>, after the
+		 * move leading to it has been made, and returns its score from the
+		 * point of view of the parent. The principal move is searched with the
+		 * full window; the other moves are scouted with a null window first
+		 * and only searched again if they turn out to be better than
+		 * <tt>alpha</tt>.
+		 */
+		private int searchChild(final GameSolverParameter parameter, final int alpha,
+				final Player opponent, final boolean principal) {
+			final int beta = parameter.beta;
+			if (principal || alpha + 1 >= beta) {
+				return -search(parameter.nextLevel(-beta, -alpha), opponent);
+			}
+			final int value = -search(parameter.nextLevel(-alpha - 1, -alpha), opponent);
+			if (value > alpha && value < beta && !stopped) {
+				return -search(parameter.nextLevel(-beta, -value), opponent);
+			}
+			return value;
+		}
+
+		/**
+		 * The root is split once its eldest move has been searched, so that
+		 * the younger siblings start with a good bound (Young Brothers Wait).
+		 */
+		private boolean isSplitPoint(final GameSolverParameter parameter) {
+			return parameter.level == 0 && searchMode == SearchMode.PARALLEL && pondering == null;
+		}
+
+		/**
+		 * Searches the moves of the root after the eldest one in parallel.
+		 * Each task reads the best value finished so far as its alpha, before
+		 * its scout and again before its re-search, so the result is the same
+		 * as the one of the serial search.
+		 */
+		private SharedResult searchYoungerSiblings(final GameSolverParameter parameter,
+				final Player player, final int alpha, final int eldestValue,
+				final int eldestMove, final int count) {
+			final SharedResult result = new SharedResult(alpha, parameter.beta, eldestValue,
+					eldestMove);
+			final List<RootMoveTask> tasks = new ArrayList<>(count - 1);
+			for (int i = 1; i < count; ++i) {
+				tasks.add(new RootMoveTask(parameter, player, ordering.getMove(0, i),
+						searchDepth, result));
+			}
+			pool.invoke(new RecursiveAction() {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					invokeAll(tasks);
+				}
+
+			});
+			stopped = aborted;
+			nodes += result.nodes.sum();
+			depthLimitReached |= result.depthLimitReached;
+			return result;
+		}
+
+		/**
+		 * Returns whether the transposition table <tt>entry</tt> given has
+		 * been searched deep enough and settles the score within the current
+		 * window. The root is always searched, so that a move is found.
+		 */
+		private boolean isStoredResultUsable(final GameSolverParameter parameter,
+				final long entry) {
+			if (parameter.level == 0) {
+				return false;
+			}
+			if (entry == TranspositionTable.MISS
+					|| TranspositionTable.getDepth(entry) < getRemainingDepth(parameter)) {
+				return false;
+			}
+			final int score = TranspositionTable.getScore(entry);
+			final int bound = TranspositionTable.getBound(entry);
+			if (bound == TranspositionTable.BOUND_EXACT
+					|| (bound == TranspositionTable.BOUND_LOWER && score >= parameter.beta)
+					|| (bound == TranspositionTable.BOUND_UPPER && score <= parameter.alpha)) {
+				// the stored search may have been cut off by a depth limit
+				depthLimitReached = true;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Stores the result of searching the position with the <tt>hash</tt>
+		 * given, using the window of the search to tell exact values from
+		 * bounds.
+		 */
+		private void storeTable(final GameSolverParameter parameter, final long hash,
+				final int value, final int cellIndex) {
+			final int bound;
+			if (value <= parameter.alpha) {
+				bound = TranspositionTable.BOUND_UPPER;
+			} else if (value >= parameter.beta) {
+				bound = TranspositionTable.BOUND_LOWER;
+			} else {
+				bound = TranspositionTable.BOUND_EXACT;
+			}
+			transpositionTable.store(hash, getRemainingDepth(parameter), bound, value, cellIndex);
+		}
+
+		private int getRemainingDepth(final GameSolverParameter parameter) {
+			return searchDepth - parameter.level;
+		}
+
+		/**
+		 * Returns the move that is to be searched first: the best move of the
+		 * previous iteration at the root, the stored best move elsewhere.
+		 */
+		private int getHashMove(final GameSolverParameter parameter, final long entry) {
+			if (parameter.level == 0 && rootMove != GameMove.NO_MOVE) {
+				return rootMove;
+			}
+			return entry == TranspositionTable.MISS ? GameMove.NO_MOVE : TranspositionTable
+					.getMove(entry);
+		}
+
+		/**
+		 * Counts the current node and checks the clock every few nodes. The
+		 * first iteration is always completed, so that there is a move to
+		 * answer with. Helpers do not watch the clock, they run until the
+		 * main search is done, and neither does pondering.
+		 */
+		private boolean isTimeUp() {
+			++nodes;
+			if (helper) {
+				stopped = helpersStopped;
+				return stopped;
+			}
+			if (pondering != null) {
+				stopped = pondering.get();
+				return stopped;
+			}
+			if ((nodes & TIME_CHECK_INTERVAL) == 0 && searchDepth > 1
+					&& System.nanoTime() > deadline) {
+				aborted = true;
+			}
+			stopped = aborted || (split != null && split.cutoff);
+			return stopped;
+		}
+
+		/**
+		 * Handles a position in which the <tt>player</tt> has no legal move.
+		 * The turn passes to the opponent, unless neither player can move, in
+		 * which case the game is over and the position is evaluated as it is.
+		 */
+		private int skipTurn(final GameSolverParameter parameter, final Player player) {
+			final Player opponent = Player.getOpponent(player);
+			if (parameter.getNextMoves(opponent) == 0) {
+				return parameter.getScore(player);
+			}
+			return -search(parameter.nextLevel(-parameter.beta, -parameter.alpha), opponent);
 		}
 
 	}
@@ -41,15 +638,221 @@ public class GameSolver {
 	 * Creates a new game solver to aid finding the optimal move for a player
 	 */
 	public GameSolver() {
+		this(TranspositionTable.DEFAULT_MEMORY);
+	}
+
+	/**
+	 * Creates a new game solver to aid finding the optimal move for a player
+	 *
+	 * @param transpositionTableMemory
+	 *            the memory budget of the transposition table in bytes
+	 */
+	public GameSolver(final long transpositionTableMemory) {
 		executor = Executors.newSingleThreadExecutor();
+		evaluator = new EvaluationCache(new HeuristicEvaluator(), EvaluationCache.DEFAULT_MEMORY);
+		transpositionTable = new TranspositionTable(transpositionTableMemory);
+		endgameTable = new TranspositionTable(transpositionTableMemory / 4);
+		evaluationCacheMemory = EvaluationCache.DEFAULT_MEMORY;
+		timeBudget = DEFAULT_TIME_BUDGET;
+		maxDepth = MAX_SEARCH_DEPTH;
+		endgameEmpties = DEFAULT_ENDGAME_EMPTIES;
+		winLossDrawEmpties = DEFAULT_WIN_LOSS_DRAW_EMPTIES;
+		searchMode = SearchMode.SERIAL;
+		searchDriver = SearchDriver.FULL_WINDOW;
+		pool = new ForkJoinPool();
+	}
+
+	/**
+	 * Sets the time the solver may spend on a single move. The search deepens
+	 * one level at a time and answers with the move of the deepest level that
+	 * has been completed within this time.
+	 *
+	 * @param timeBudget
+	 *            the time budget for a move in milliseconds
+	 */
+	public void setTimeBudget(final long timeBudget) {
+		this.timeBudget = timeBudget;
+	}
+
+	/**
+	 * Sets the depth at which the search stops deepening, even if there is
+	 * time left, e.g. to compare searches to the same depth.
+	 *
+	 * @param maxDepth
+	 *            the deepest level to be searched, at most
+	 *            {@link #MAX_SEARCH_DEPTH}
+	 */
+	public void setMaxDepth(final int maxDepth) {
+		this.maxDepth = Math.min(maxDepth, MAX_SEARCH_DEPTH);
+	}
+
+	/**
+	 * Sets the number of empty cells from which on the position is solved
+	 * exactly, i.e. searched to the end of the game for the best final disc
+	 * differential. If the exact solve does not finish within the time
+	 * budget, the heuristic search gets the time that is left, completing at
+	 * least its first iteration.
+	 *
+	 * @param endgameEmpties
+	 *            the largest number of empty cells that are solved exactly,
+	 *            zero to always use the heuristic search
+	 */
+	public void setEndgameEmpties(final int endgameEmpties) {
+		this.endgameEmpties = endgameEmpties;
+	}
+
+	/**
+	 * Sets the number of empty cells from which on the position is solved for
+	 * a win, a loss or a draw. This is much cheaper than an exact solve, so it
+	 * should start a few empty cells earlier. A winning or drawing move found
+	 * this way is played, refined by an exact solve if there is time left; if
+	 * the position is lost, the heuristic search picks the move.
+	 *
+	 * @param winLossDrawEmpties
+	 *            the largest number of empty cells that are solved for a win,
+	 *            a loss or a draw, zero to turn this off
+	 */
+	public void setWinLossDrawEmpties(final int winLossDrawEmpties) {
+		this.winLossDrawEmpties = winLossDrawEmpties;
+	}
+
+	/**
+	 * Sets the evaluator of the positions at the leaves of the search, a
+	 * {@link HeuristicEvaluator} by default. The evaluation cache is emptied.
+	 *
+	 * @param evaluator
+	 *            the evaluator of the next searches
+	 */
+	public void setEvaluator(final BoardEvaluator evaluator) {
+		this.evaluator = new EvaluationCache(evaluator, evaluationCacheMemory);
+	}
+
+	/**
+	 * Sets the size of the cache of the values of the evaluator, see
+	 * {@link EvaluationCache}. The cache is emptied.
+	 *
+	 * @param evaluationCacheMemory
+	 *            the memory budget of the evaluation cache in bytes
+	 */
+	public void setEvaluationCacheMemory(final long evaluationCacheMemory) {
+		this.evaluationCacheMemory = evaluationCacheMemory;
+		evaluator = new EvaluationCache(evaluator.getEvaluator(), evaluationCacheMemory);
+	}
+
+	/**
+	 * Sets the way the search is spread over threads
+	 *
+	 * @param searchMode
+	 *            the search mode of the next searches
+	 */
+	public void setSearchMode(final SearchMode searchMode) {
+		this.searchMode = searchMode;
+	}
+
+	/**
+	 * Sets the way the windows of each iteration are chosen
+	 *
+	 * @param searchDriver
+	 *            the search driver of the next searches
+	 */
+	public void setSearchDriver(final SearchDriver searchDriver) {
+		this.searchDriver = searchDriver;
+	}
+
+	/**
+	 * Sets the number of threads of the pool used by the parallel search
+	 * modes. By default there is one thread per available processor. In the
+	 * {@link SearchMode#LAZY_SMP} mode the solver thread counts as one of them.
+	 *
+	 * @param parallelism
+	 *            the number of threads searching in parallel
+	 */
+	public void setParallelism(final int parallelism) {
+		final ForkJoinPool previous = pool;
+		pool = new ForkJoinPool(parallelism);
+		previous.shutdown();
+	}
+
+	/**
+	 * Sets the listener that is to be notified each time a search depth has
+	 * been completed, e.g. to compare the number of nodes needed per depth.
+	 *
+	 * @param progressListener
+	 *            the listener to be notified, <tt>null</tt> for none
+	 */
+	public void setProgressListener(final SearchProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
+	/**
+	 * Sets the opening book that is looked up before searching. A position in
+	 * the book is answered with the book move right away.
+	 *
+	 * @param openingBook
+	 *            the opening book, <tt>null</tt> for none
+	 */
+	public void setOpeningBook(final OpeningBook openingBook) {
+		this.openingBook = openingBook;
+	}
+
+	/**
+	 * Sets the cache of solved endgame positions, which is looked up and
+	 * added to by the exact solves, so that positions solved in earlier games
+	 * are answered right away
+	 *
+	 * @param endgameCache
+	 *            the endgame cache, <tt>null</tt> for none
+	 */
+	public void setEndgameCache(final EndgameCache endgameCache) {
+		this.endgameCache = endgameCache;
+	}
+
+	/**
+	 * Starts thinking about the replies to the moves of the <tt>player</tt>
+	 * given, while that player is thinking, until {@link #stopPondering()} is
+	 * called. The moves of the player are searched in turn, one depth at a
+	 * time, the most likely ones first. When the reply to the move that has
+	 * been played is asked for, the search goes on from the pondered result,
+	 * or answers right away if the move has been searched at least as deep
+	 * as the previous search went. The positions close to the end of the game
+	 * are left to the endgame solver.
+	 *
+	 * Note that this method executes asynchronously, on the thread that the
+	 * next call to {@link #getOptimalMove(Board, Player, GameSolverCallback)}
+	 * waits for. A session still running is stopped first.
+	 *
+	 * @param currentBoard
+	 *            the board on which the <tt>player</tt> is to move, copied
+	 *            before this returns
+	 * @param player
+	 *            the player who is thinking
+	 */
+	public synchronized void startPondering(final Board currentBoard, final Player player) {
+		stopPondering();
+		final Position position = new Position(currentBoard.getPosition());
+		final AtomicBoolean stopped = new AtomicBoolean();
+		ponderingStopped = stopped;
+		ponderingTask = executor.submit(() -> ponder(position, player, stopped));
+	}
+
+	/**
+	 * Stops pondering, e.g. as soon as the player has moved, without waiting
+	 * for the search to return. The results found so far are kept for the
+	 * next search.
+	 */
+	public synchronized void stopPondering() {
+		if (ponderingStopped != null) {
+			ponderingStopped.set(true);
+			ponderingTask.cancel(false);
+		}
 	}
 
 	/**
 	 * Finds the optimal move for the white player, given the current board.
-	 * 
+	 *
 	 * Note that this method executes asynchronously and returns the result to
 	 * the callback.
-	 * 
+	 *
 	 * @param currentBoard
 	 *            the start board for which we are trying to find the optimal
 	 *            move
@@ -58,69 +861,359 @@ public class GameSolver {
 	 *            been found
 	 */
 	public void getOptimalMove(final Board currentBoard, final GameSolverCallback callback) {
-		executor.execute(new GameSolverRunnable(currentBoard, callback));
+		getOptimalMove(currentBoard, Player.WHITE, callback);
+	}
+
+	/**
+	 * Finds the optimal move for the <tt>player</tt> given, given the current
+	 * board.
+	 *
+	 * Note that this method executes asynchronously and returns the result to
+	 * the callback.
+	 *
+	 * @param currentBoard
+	 *            the start board for which we are trying to find the optimal
+	 *            move
+	 * @param player
+	 *            the player who is to move
+	 * @param callback
+	 *            the callback that is to be fired when the optimal move has
+	 *            been found
+	 */
+	public void getOptimalMove(final Board currentBoard, final Player player,
+			final GameSolverCallback callback) {
+		executor.execute(new GameSolverRunnable(currentBoard, player, callback));
+	}
+
+	/**
+	 * Finds the optimal move for the <tt>player</tt> given, given the current
+	 * board, on the calling thread. Meant for tools and benchmarks; it must
+	 * not run while the solver is searching for another move.
+	 *
+	 * @param currentBoard
+	 *            the start board for which we are trying to find the optimal
+	 *            move
+	 * @param player
+	 *            the player who is to move
+	 * @return the optimal move and its value for the <tt>player</tt>
+	 */
+	public GameMove findOptimalMove(final Board currentBoard, final Player player) {
+		return getDeepestMove(currentBoard.getPosition(), player);
+	}
+
+	/**
+	 * Finds the optimal move for the <tt>player</tt> given in a copy of the
+	 * <tt>position</tt> given, on the calling thread, like
+	 * {@link #findOptimalMove(Board, Player)}
+	 *
+	 * @param position
+	 *            the position for which we are trying to find the optimal move
+	 * @param player
+	 *            the player who is to move
+	 * @return the optimal move and its value for the <tt>player</tt>
+	 */
+	public GameMove findOptimalMove(final BitBoard position, final Player player) {
+		return getDeepestMove(new Position(position), player);
+	}
+
+	/**
+	 * Returns the transposition table of this solver, e.g. to inspect its
+	 * counters
+	 *
+	 * @return the transposition table shared by all the searches of this
+	 *         solver
+	 */
+	public TranspositionTable getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	/**
+	 * Returns the cache of the values of the evaluator, e.g. to inspect its
+	 * counters
+	 *
+	 * @return the evaluation cache shared by all the searches of this solver
+	 */
+	public EvaluationCache getEvaluationCache() {
+		return evaluator;
+	}
+
+	/**
+	 * Searches the <tt>position</tt> with increasing depth until the time
+	 * budget runs out or the whole game tree has been searched. Each iteration
+	 * tries the best move of the previous one first. In the
+	 * {@link SearchMode#LAZY_SMP} mode the helpers search the same position
+	 * meanwhile. Positions close enough to the end of the game are solved
+	 * exactly instead.
+	 */
+	private GameMove getDeepestMove(final Position position, final Player player) {
+		final OpeningBook book = openingBook;
+		if (book != null) {
+			final GameMove move = book.getBestMove(position, player);
+			if (move != null) {
+				return move;
+			}
+		}
+
+		final PonderedReply pondered = ponderedReplies.get(position.getHash(player));
+		ponderedReplies.clear();
+		if (pondered != null && (pondered.complete || pondered.depth >= lastSearchDepth)) {
+			return pondered.move;
+		}
+
+		final Searcher searcher = searchers.get();
+		searcher.helper = false;
+		searcher.pondering = null;
+		transpositionTable.newSearch();
+		searcher.ordering.clear();
+		final long start = System.nanoTime();
+		final long budget = timeBudget * 1000000L;
+		deadline = start + budget;
+		aborted = false;
+
+		final int empties = Long.bitCount(position.getEmpty());
+		if (empties <= endgameEmpties || empties <= winLossDrawEmpties) {
+			final GameMove move = solveEndgame(position, player, searcher.endgameSolver, start,
+					empties > endgameEmpties);
+			if (move != null) {
+				return move;
+			}
+		}
+
+		final List<ForkJoinTask<?>> helpers = startHelpers(position, player);
+		try {
+			return getDeepestMove(position, player, searcher, start, budget, pondered);
+		} finally {
+			helpersStopped = true;
+			for (final ForkJoinTask<?> helper : helpers) {
+				helper.quietlyJoin();
+			}
+		}
 	}
 
-	private GameMove getOptimalMinMove(final GameSolverParameter parameter) {
-		if (parameter.level == MAX_LEVEL_SEARCH_DEPTH) {
-			return new GameMove(parameter, Player.WHITE);
+	/**
+	 * Deepens the search of the <tt>position</tt>, from the depth after the
+	 * <tt>pondered</tt> one if there is one
+	 */
+	private GameMove getDeepestMove(final Position position, final Player player,
+			final Searcher searcher, final long start, final long budget,
+			final PonderedReply pondered) {
+		final SearchDriver driver = searchDriver;
+		GameMove result = pondered == null ? new GameMove(0, GameMove.NO_MOVE) : pondered.move;
+		final int firstDepth = pondered == null ? 1 : pondered.depth + 1;
+		int completedDepth = firstDepth - 1;
+		for (int searchDepth = firstDepth; searchDepth <= maxDepth; ++searchDepth) {
+			searcher.startIteration(searchDepth, result.getCellIndex());
+			final GameMove move;
+			if (searchDepth == 1 || driver == SearchDriver.FULL_WINDOW) {
+				move = searchWindow(position, player, searcher, -INFINITY, INFINITY);
+			} else if (driver == SearchDriver.ASPIRATION) {
+				move = searchAspiration(position, player, searcher, result.getValue());
+			} else {
+				move = searchMtdf(position, player, searcher, result);
+			}
+			if (searcher.stopped) {
+				break;
+			}
+			result = move;
+			completedDepth = searchDepth;
+			notifyDepthCompleted(searchDepth, result, searcher.nodes,
+					(System.nanoTime() - start) / 1000000L);
+			// the next iteration would most likely not finish in time
+			if (!searcher.depthLimitReached || System.nanoTime() - start > budget / 2) {
+				break;
+			}
+		}
+		if (pondered == null) {
+			lastSearchDepth = completedDepth;
 		}
+		return result;
+	}
 
-		final Collection<Board> gameStates = parameter.getNextBoards(Player.WHITE);
-		GameMove nextMove = new GameMove(Integer.MAX_VALUE, parameter.board);
+	/**
+	 * Searches the replies to all the moves of the <tt>player</tt> one depth
+	 * at a time, until pondering is stopped or all of them have been searched
+	 * to the maximum depth. After each depth, the moves that leave the
+	 * opponent with the worst reply, which the player is the most likely to
+	 * play, are moved to the front.
+	 */
+	private void ponder(final Position position, final Player player,
+			final AtomicBoolean stopped) {
+		ponderedReplies.clear();
+		final Searcher searcher = searchers.get();
+		searcher.helper = false;
+		searcher.pondering = stopped;
+		searcher.ordering.clear();
+		transpositionTable.newSearch();
 
-		for (final Board nextState : gameStates) {
-			final GameSolverParameter nextParameter = getNextLevelParameter(parameter, nextState);
-			final GameMove optimalMove = getOptimalMaxMove(nextParameter);
-			tryUpdateMinResult(parameter, nextMove, nextState, optimalMove);
-			if (parameter.beta <= parameter.alpha) {
-				return nextMove;
+		final Player opponent = Player.getOpponent(player);
+		final OpeningBook book = openingBook;
+		final List<PonderedReply> replies = new ArrayList<>();
+		for (long moves = position.getMoves(player); moves != 0; moves &= moves - 1) {
+			position.makeMove(Long.numberOfTrailingZeros(moves), player);
+			final int empties = Long.bitCount(position.getEmpty());
+			if (empties > endgameEmpties && empties > winLossDrawEmpties
+					&& (book == null || book.getBestMove(position, opponent) == null)) {
+				replies.add(new PonderedReply(new Position(position)));
 			}
+			position.undoMove();
 		}
 
-		return nextMove;
+		try {
+			for (int searchDepth = 1; searchDepth <= maxDepth && !replies.isEmpty(); ++searchDepth) {
+				for (final PonderedReply reply : replies) {
+					searcher.startIteration(searchDepth, reply.move.getCellIndex());
+					final GameMove move = searchWindow(reply.position, opponent, searcher,
+							-INFINITY, INFINITY);
+					if (searcher.stopped) {
+						return;
+					}
+					reply.move = move;
+					reply.depth = searchDepth;
+					reply.complete = !searcher.depthLimitReached;
+					ponderedReplies.put(reply.position.getHash(opponent), reply);
+				}
+				replies.removeIf(reply -> reply.complete);
+				replies.sort(Comparator.comparingInt(reply -> reply.move.getValue()));
+			}
+		} finally {
+			searcher.pondering = null;
+		}
 	}
 
-	private GameMove getOptimalMaxMove(final GameSolverParameter parameter) {
-		if (parameter.level == MAX_LEVEL_SEARCH_DEPTH) {
-			return new GameMove(parameter, Player.BLACK);
+	/**
+	 * Solves the <tt>position</tt> within the time budget, first for a win, a
+	 * loss or a draw if <tt>winLossDrawFirst</tt>, then exactly. Returns
+	 * <tt>null</tt> if no move has been found this way: the first solve has
+	 * run out of time, or the position is lost.
+	 */
+	private GameMove solveEndgame(final Position position, final Player player,
+			final EndgameSolver solver, final long start, final boolean winLossDrawFirst) {
+		final int empties = Long.bitCount(position.getEmpty());
+		final long own = position.getDiscs(player);
+		final long opponent = position.getDiscs(Player.getOpponent(player));
+		solver.setCache(endgameCache);
+		GameMove result = null;
+		if (winLossDrawFirst) {
+			final int value = solver.solveWinLossDraw(own, opponent, deadline);
+			if (solver.isAborted() || value < 0) {
+				return null;
+			}
+			result = new GameMove(value, solver.getBestMove());
+			notifyDepthCompleted(empties, result, solver.getNodes(),
+					(System.nanoTime() - start) / 1000000L);
+		}
+		final int value = solver.solve(own, opponent, deadline);
+		if (solver.isAborted()) {
+			return result;
 		}
+		result = new GameMove(value, solver.getBestMove());
+		notifyDepthCompleted(empties, result, solver.getNodes(),
+				(System.nanoTime() - start) / 1000000L);
+		return result;
+	}
+
+	private GameMove searchWindow(final Position position, final Player player,
+			final Searcher searcher, final int alpha, final int beta) {
+		final int value = searcher.search(new GameSolverParameter(position, evaluator, alpha,
+				beta, 0), player);
+		return new GameMove(value, searcher.bestRootMove);
+	}
 
-		final Collection<Board> gameStates = parameter.getNextBoards(Player.BLACK);
-		GameMove nextMove = new GameMove(Integer.MIN_VALUE, parameter.board);
+	/**
+	 * Searches with a window around the value <tt>guess</tt> of the previous
+	 * iteration. Each time the value falls outside the window, the window is
+	 * made twice as wide on that side and the search is repeated.
+	 */
+	private GameMove searchAspiration(final Position position, final Player player,
+			final Searcher searcher, final int guess) {
+		long delta = ASPIRATION_WINDOW;
+		int alpha = clamp(guess - delta);
+		int beta = clamp(guess + delta);
+		while (true) {
+			final GameMove move = searchWindow(position, player, searcher, alpha, beta);
+			final int value = move.getValue();
+			if (searcher.stopped || (value > alpha && value < beta)) {
+				return move;
+			}
+			delta *= 2;
+			if (value <= alpha) {
+				alpha = clamp((long) value - delta);
+			} else {
+				beta = clamp((long) value + delta);
+				searcher.rootMove = move.getCellIndex();
+			}
+		}
+	}
 
-		for (final Board nextState : gameStates) {
-			final GameSolverParameter nextParameter = getNextLevelParameter(parameter, nextState);
-			final GameMove optimalMove = getOptimalMinMove(nextParameter);
-			tryUpdateMaxResult(parameter, nextMove, nextState, optimalMove);
-			if (parameter.beta <= parameter.alpha) {
-				return nextMove;
+	/**
+	 * Searches with null windows only, each one telling whether the value is
+	 * above or below the test value, until the bounds meet (MTD(f)). The best
+	 * move is the one of the last search that has failed high, as the searches
+	 * that fail low do not tell which move is the best.
+	 */
+	private GameMove searchMtdf(final Position position, final Player player,
+			final Searcher searcher, final GameMove guess) {
+		int value = guess.getValue();
+		int bestMove = guess.getCellIndex();
+		int lower = -INFINITY;
+		int upper = INFINITY;
+		while (lower < upper) {
+			final int beta = value == lower ? value + 1 : value;
+			final GameMove move = searchWindow(position, player, searcher, beta - 1, beta);
+			if (searcher.stopped) {
+				break;
+			}
+			value = move.getValue();
+			if (value < beta) {
+				upper = value;
+			} else {
+				lower = value;
+				bestMove = move.getCellIndex();
+				searcher.rootMove = bestMove;
 			}
 		}
-		return nextMove;
+		return new GameMove(value, bestMove);
+	}
+
+	private static int clamp(final long value) {
+		return (int) Math.max(-INFINITY, Math.min(INFINITY, value));
 	}
 
-	private void tryUpdateMaxResult(final GameSolverParameter parameter, GameMove nextMove,
-			final Board nextState, final GameMove optimalMove) {
-		if (nextMove.compareTo(optimalMove) <= 0) {
-			final int nextValue = optimalMove.getValue();
-			nextMove.setBoard(nextState).setValue(nextValue);
-			parameter.alpha = nextValue;
+	/**
+	 * Starts one helper per thread of the pool, except the one taken by the
+	 * main search, if the search mode is {@link SearchMode#LAZY_SMP}
+	 */
+	private List<ForkJoinTask<?>> startHelpers(final Position position, final Player player) {
+		helpersStopped = false;
+		if (searchMode != SearchMode.LAZY_SMP) {
+			return Collections.emptyList();
 		}
+		final ForkJoinPool helperPool = pool;
+		final int count = helperPool.getParallelism() - 1;
+		final List<ForkJoinTask<?>> helpers = new ArrayList<>(count);
+		for (int i = 0; i < count; ++i) {
+			helpers.add(helperPool.submit(new HelperSearch(position, player, (i + 1) & 1)));
+		}
+		return helpers;
 	}
 
-	private void tryUpdateMinResult(final GameSolverParameter parameter, GameMove result,
-			final Board nextState, final GameMove next) {
-		if (result.compareTo(next) >= 0) {
-			final int nextValue = next.getValue();
-			result.setBoard(nextState).setValue(nextValue);
-			parameter.beta = nextValue;
+	private void notifyDepthCompleted(final int depth, final GameMove move, final long nodes,
+			final long elapsedTime) {
+		final SearchProgressListener listener = progressListener;
+		if (listener != null) {
+			listener.onDepthCompleted(depth, move.getValue(), move.getCellIndex(), nodes,
+					elapsedTime);
 		}
 	}
 
-	private GameSolverParameter getNextLevelParameter(final GameSolverParameter parameter,
-			final Board nextState) {
-		return GameSolverParameter.increasedLevel(nextState, parameter);
+	private Collection<Cell> getDifference(final Board board, final Player player,
+			final int cellIndex) {
+		if (cellIndex == GameMove.NO_MOVE) {
+			return Collections.emptyList();
+		}
+		final Board nextBoard = board.clone();
+		nextBoard.takeCell(cellIndex, player);
+		return nextBoard.getDifference(board);
 	}
 
 }
@@ -1,48 +1,37 @@
 package edu.depauw.csc232.reversi;
 
-import java.util.Collection;
-
-import edu.depauw.csc232.reversi.model.Board;
 import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
 
 /**
  * A parameter object that is used for making calls to the methods of the
- * {@link GameSolver}
+ * {@link GameSolver}. All the parameters of one search share the same
+ * {@link Position}, which is updated in place as moves are made and undone.
+ * The search window is fixed for the node the parameter is passed to; the
+ * children get parameters of their own.
  * 
  * @author martin
  * 
  */
 public class GameSolverParameter {
-	public final Board board;
+	public final Position position;
 
-	public int alpha;
+	public final BoardEvaluator evaluator;
 
-	public int beta;
+	public final int alpha;
 
-	public int level;
+	public final int beta;
 
-	/**
-	 * Creates a new {@link GameSolverParameter} that is copy of the one
-	 * supplied, but with an increased traversal level.
-	 * 
-	 * @param nextBoard
-	 *            the board that is to be wrapper in this parameter object
-	 * @param other
-	 *            the parameter object that is to be copied, except for the
-	 *            board and the current traversal level
-	 * @return a new {@link GameSolverParameter} instance
-	 */
-	public static GameSolverParameter increasedLevel(final Board nextBoard,
-			final GameSolverParameter other) {
-		return new GameSolverParameter(nextBoard, other.alpha, other.beta, other.level + 1);
-	}
+	public final int level;
 
 	/**
 	 * Creates a new {@link GameSolverParameter} instance, using the parameters
 	 * given
 	 * 
-	 * @param board
-	 *            the board that is to be wrapper into this parameter object
+	 * @param position
+	 *            the position that is to be wrapped into this parameter object
+	 * @param evaluator
+	 *            the evaluator that is to be used for the wrapped position
 	 * @param alpha
 	 *            the alpha value that is to be used
 	 * @param beta
@@ -50,38 +39,99 @@ public class GameSolverParameter {
 	 * @param level
 	 *            the current traversal level
 	 */
-	public GameSolverParameter(final Board board, final int alpha, final int beta, final int level) {
-		this.board = board;
+	public GameSolverParameter(final Position position, final BoardEvaluator evaluator,
+			final int alpha, final int beta, final int level) {
+		this.position = position;
+		this.evaluator = evaluator;
 		this.alpha = alpha;
 		this.beta = beta;
 		this.level = level;
 	}
 
 	/**
-	 * Returns all the next possible board configurations for the
-	 * <tt>player</tt> specified
+	 * Creates the parameter for a child of the current node, i.e. one level
+	 * deeper and with the window given
+	 * 
+	 * @param childAlpha
+	 *            the alpha value of the child, from the point of view of the
+	 *            player to move in the child
+	 * @param childBeta
+	 *            the beta value of the child, from the point of view of the
+	 *            player to move in the child
+	 * @return a new {@link GameSolverParameter} instance
+	 */
+	public GameSolverParameter nextLevel(final int childAlpha, final int childBeta) {
+		return new GameSolverParameter(position, evaluator, childAlpha, childBeta, level + 1);
+	}
+
+	/**
+	 * Returns all the next possible moves for the <tt>player</tt> specified
 	 * 
 	 * @param player
-	 *            the player for which the next board configurations are to be
-	 *            retrieved
-	 * @return a collection of all the possible next board configurations for
-	 *         the <tt>player</tt> given.
+	 *            the player for which the next moves are to be retrieved
+	 * @return the word with the bits of all the cells the <tt>player</tt> can
+	 *         place a disc on set
+	 */
+	public long getNextMoves(final Player player) {
+		return position.getMoves(player);
+	}
+
+	/**
+	 * Returns the Zobrist hash of the wrapped position
+	 * 
+	 * @param sideToMove
+	 *            the player who is to move in the wrapped position
+	 * @return the hash of the position and the side to move
 	 */
-	public Collection<Board> getNextBoards(final Player player) {
-		return board.getNextBoards(player);
+	public long getHash(final Player sideToMove) {
+		return position.getHash(sideToMove);
+	}
+
+	/**
+	 * Makes the move at <tt>cellIndex</tt> for the <tt>player</tt> given in the
+	 * wrapped position
+	 * 
+	 * @param cellIndex
+	 *            the index of the cell at which a disc is to be placed
+	 * @param player
+	 *            the player making the move
+	 */
+	public void makeMove(final int cellIndex, final Player player) {
+		position.makeMove(cellIndex, player);
+	}
+
+	/**
+	 * Takes back the last move made in the wrapped position
+	 */
+	public void undoMove() {
+		position.undoMove();
 	}
 
 	/**
 	 * Returns the board evaluation for the <tt>player</tt> given.
 	 * 
 	 * @param player
-	 *            the player for which the board that is wrapped into this
+	 *            the player for which the position that is wrapped into this
 	 *            parameter object is to be evaluated
-	 * @return the heuristic evaluation of the board for the <tt>player</tt>
+	 * @return the heuristic evaluation of the position for the <tt>player</tt>
 	 *         supplied.
 	 */
 	public int getValue(final Player player) {
-		return board.getValue(player);
+		return evaluator.getValue(position, player);
+	}
+
+	/**
+	 * Returns the board evaluation from the point of view of the
+	 * <tt>player</tt> to move, i.e. positive if the position is good for the
+	 * <tt>player</tt>, as used by the negamax search
+	 * 
+	 * @param player
+	 *            the player to move in the wrapped position
+	 * @return the heuristic evaluation of the position, negated for the white
+	 *         player
+	 */
+	public int getScore(final Player player) {
+		return player.getSign() * getValue(player);
 	}
 
 }
@@ -0,0 +1,136 @@
+package edu.depauw.csc232.reversi;
+
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
+import edu.depauw.csc232.reversi.move.MoveGenerator;
+
+/**
+ * 
+ * A helper class that is used for evaluating the current state of the board,
+ * as a weighted sum of a few hand-made heuristics.
+ * 
+ * @author martin
+ * 
+ */
+public class HeuristicEvaluator implements BoardEvaluator {
+
+	/**
+	 * {@value}
+	 */
+	private static final int WEIGHT_LOCATION = 13;
+
+	/**
+	 * {@value}
+	 */
+	private static final int WEIGHT_SKIP_TURN = 500;
+
+	/**
+	 * {@value}
+	 */
+	private static final int WEIGHT_STABLE_DISCS = 8;
+
+	/**
+	 * {@value}
+	 */
+	private static final int WEIGHT_MOBILITY = 5;
+
+	/**
+	 * {@value4}
+	 */
+	private static final int WEIGHT_DISC_COUNT = 2;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getValue(final Position board, final Player player) {
+		final Player opponent = Player.getOpponent(player);
+		final int opponentMoveCount = MoveGenerator.getMoveCount(board.getDiscs(opponent),
+				board.getDiscs(player));
+		return getLocationValue(board) + getStabilityValue(board, player)
+				+ getTurnValue(opponentMoveCount, player)
+				+ getMobilityValue(opponentMoveCount, player) + getDiscCountValue(board, player);
+	}
+
+	/**
+	 * Returns the value of the <tt>board</tt> given, based on assessing the
+	 * location of the discs of both players. The location value is kept up to
+	 * date by the board on every move, so this does not scan the cells.
+	 * 
+	 * @param board
+	 *            the board that is to be evaluated
+	 * @return the difference between the location-based value of the board for
+	 *         the black player and the one for the white player
+	 */
+	private int getLocationValue(final Position board) {
+		return board.getLocationValue() * WEIGHT_LOCATION;
+	}
+
+	/**
+	 * Returns the value of the <tt>board</tt> given, based on assessing the
+	 * stability of the discs that are currently on the board for the
+	 * <tt>player</tt> specified
+	 * 
+	 * @param board
+	 *            the board that is to be evaluated
+	 * @param player
+	 *            the player for whom the board is to be evaluated
+	 * @return the difference between the number of stable discs on the board
+	 *         for the <tt>player</tt> given and his opponent, multiplied by the
+	 *         respective weight
+	 */
+	private int getStabilityValue(final Position board, final Player player) {
+		return player.getSign()
+				* (board.getStableDiscCount(player) - board.getStableDiscCount(Player
+						.getOpponent(player))) * WEIGHT_STABLE_DISCS;
+	}
+
+	/**
+	 * Returns the value of the <tt>board</tt> given, based on assessing the
+	 * chances of the current player having the advantage that the next player
+	 * will skip his turn.
+	 * 
+	 * @param opponentMoveCount
+	 *            the number of moves the opponent of the <tt>player</tt> can
+	 *            make on the board that is to be evaluated
+	 * @param player
+	 *            the player for which the board is to be evaluated
+	 * @return the value of the board, computed with respect to the chance that
+	 *         the next player will have to skip his turn.
+	 */
+	private int getTurnValue(final int opponentMoveCount, final Player player) {
+		return opponentMoveCount == 0 ? player.getSign() * WEIGHT_SKIP_TURN : 0;
+	}
+
+	/**
+	 * Returns the mobility value of the board. This is the number of possible
+	 * moves the next player can make taken with the respective weight.
+	 * 
+	 * @param opponentMoveCount
+	 *            the number of moves the opponent of the <tt>player</tt> can
+	 *            make on the board that is to be evaluated
+	 * @param player
+	 *            the player for which the board is to be evaluated
+	 * @return the mobility value of the board
+	 */
+	private int getMobilityValue(final int opponentMoveCount, final Player player) {
+		return -player.getSign() * opponentMoveCount * WEIGHT_MOBILITY;
+	}
+
+	/**
+	 * Returns the disc count value of the board for the given player
+	 * 
+	 * @param board
+	 *            the board that is to be evaluated
+	 * @param player
+	 *            the player for which the board is to be evaluated
+	 * @return the disc count value of the board specified for the
+	 *         <tt>player</tt> given
+	 */
+	private int getDiscCountValue(final Position board, final Player player) {
+		return player.getSign()
+				* (board.getDiscCount(player) - board.getDiscCount(Player.getOpponent(player)))
+				* WEIGHT_DISC_COUNT;
+
+	}
+}
@@ -0,0 +1,181 @@
+package edu.depauw.csc232.reversi;
+
+import edu.depauw.csc232.reversi.model.BitBoard;
+import edu.depauw.csc232.reversi.model.Player;
+
+/**
+ * Orders the moves of a search node so that the ones most likely to cause a
+ * cutoff are searched first: the move stored in the transposition table, then
+ * the killer moves of the same level, then the moves with the best history
+ * score, with ties broken by a static priority of the cells (corners first,
+ * the cells next to the corners last).
+ *
+ * The move lists are kept per level, so ordering does no allocation.
+ *
+ */
+public class MoveOrdering {
+
+	/**
+	 * {@value}
+	 */
+	private static final int KILLER_COUNT = 2;
+
+	private static final int SCORE_HASH_MOVE = 1 << 30;
+
+	private static final int SCORE_KILLER_MOVE = 1 << 28;
+
+	/**
+	 * The history scores are halved once one of them reaches this value,
+	 * {@value}
+	 */
+	private static final int MAX_HISTORY = 1 << 22;
+
+	/**
+	 * {@value}
+	 */
+	private static final int PRIORITY_BITS = 4;
+
+	/**
+	 * The static priority of each cell, from 0 (searched last) to 15
+	 */
+	private static final int[] CELL_PRIORITIES = { 15, 2, 10, 8, 8, 10, 2, 15,
+			2, 0, 5, 6, 6, 5, 0, 2,
+			10, 5, 9, 7, 7, 9, 5, 10,
+			8, 6, 7, 4, 4, 7, 6, 8,
+			8, 6, 7, 4, 4, 7, 6, 8,
+			10, 5, 9, 7, 7, 9, 5, 10,
+			2, 0, 5, 6, 6, 5, 0, 2,
+			15, 2, 10, 8, 8, 10, 2, 15 };
+
+	private final int[][] moves;
+
+	private final int[][] scores;
+
+	private final int[][] killers;
+
+	private final int[][] history;
+
+	/**
+	 * Creates a new move ordering for searches of up to <tt>maxLevel</tt>
+	 * levels
+	 *
+	 * @param maxLevel
+	 *            the deepest level at which moves are to be ordered
+	 */
+	public MoveOrdering(final int maxLevel) {
+		moves = new int[maxLevel + 1][BitBoard.SIZE];
+		scores = new int[maxLevel + 1][BitBoard.SIZE];
+		killers = new int[maxLevel + 1][KILLER_COUNT];
+		history = new int[2][BitBoard.SIZE];
+		clear();
+	}
+
+	/**
+	 * Orders the <tt>cells</tt> given for the search node at <tt>level</tt>.
+	 * Use {@link #getMove(int, int)} to retrieve them in order.
+	 *
+	 * @param cells
+	 *            the legal moves of the node
+	 * @param level
+	 *            the level of the node in the search tree
+	 * @param hashMove
+	 *            the best move stored for the node, {@link GameMove#NO_MOVE}
+	 *            if there is none
+	 * @param player
+	 *            the player who is to move
+	 * @return the number of moves
+	 */
+	public int orderMoves(long cells, final int level, final int hashMove, final Player player) {
+		final int[] levelMoves = moves[level];
+		final int[] levelScores = scores[level];
+		final int[] levelKillers = killers[level];
+		final int[] playerHistory = history[player.ordinal()];
+		int count = 0;
+		while (cells != 0) {
+			final int cellIndex = Long.numberOfTrailingZeros(cells);
+			cells &= cells - 1;
+			final int score;
+			if (cellIndex == hashMove) {
+				score = SCORE_HASH_MOVE;
+			} else if (cellIndex == levelKillers[0]) {
+				score = SCORE_KILLER_MOVE + 1;
+			} else if (cellIndex == levelKillers[1]) {
+				score = SCORE_KILLER_MOVE;
+			} else {
+				score = (playerHistory[cellIndex] << PRIORITY_BITS) | CELL_PRIORITIES[cellIndex];
+			}
+			// insertion sort, highest score first
+			int i = count;
+			while (i > 0 && levelScores[i - 1] < score) {
+				levelMoves[i] = levelMoves[i - 1];
+				levelScores[i] = levelScores[i - 1];
+				--i;
+			}
+			levelMoves[i] = cellIndex;
+			levelScores[i] = score;
+			++count;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the move at position <tt>index</tt> of the last ordering made for
+	 * <tt>level</tt>
+	 *
+	 * @param level
+	 *            the level of the search node
+	 * @param index
+	 *            the position of the move in the ordering
+	 * @return the index of the cell of the move
+	 */
+	public int getMove(final int level, final int index) {
+		return moves[level][index];
+	}
+
+	/**
+	 * Records that the move at <tt>cellIndex</tt> has caused a cutoff, so that
+	 * it is tried earlier in similar positions.
+	 *
+	 * @param cellIndex
+	 *            the index of the cell of the move
+	 * @param level
+	 *            the level of the node where the cutoff occurred
+	 * @param depth
+	 *            the remaining search depth of the node
+	 * @param player
+	 *            the player who made the move
+	 */
+	public void onCutoff(final int cellIndex, final int level, final int depth,
+			final Player player) {
+		final int[] levelKillers = killers[level];
+		if (levelKillers[0] != cellIndex) {
+			levelKillers[1] = levelKillers[0];
+			levelKillers[0] = cellIndex;
+		}
+		final int[] playerHistory = history[player.ordinal()];
+		playerHistory[cellIndex] += depth * depth;
+		if (playerHistory[cellIndex] >= MAX_HISTORY) {
+			for (final int[] scores : history) {
+				for (int i = 0; i < scores.length; ++i) {
+					scores[i] >>= 1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forgets the killer moves and the history of earlier searches
+	 */
+	public void clear() {
+		for (final int[] levelKillers : killers) {
+			levelKillers[0] = GameMove.NO_MOVE;
+			levelKillers[1] = GameMove.NO_MOVE;
+		}
+		for (final int[] scores : history) {
+			for (int i = 0; i < scores.length; ++i) {
+				scores[i] = 0;
+			}
+		}
+	}
+
+}
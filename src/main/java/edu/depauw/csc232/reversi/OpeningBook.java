@@ -0,0 +1,196 @@
+package edu.depauw.csc232.reversi;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
+
+/**
+ * An opening book: the values of known positions, from the point of view of
+ * the player to move, keyed by the hash of the canonical form of the position
+ * with the side to move, see {@link Position#getCanonicalHash(Player)}. All the
+ * images of a position by the symmetries of the board share one entry. The
+ * best move of a position in the book is the one leading to the child
+ * position with the lowest value for the opponent.
+ *
+ * The book is a file with a header of three big-endian ints: the magic number
+ * {@link #MAGIC}, the format {@link #VERSION} and the number of entries,
+ * followed by the entries sorted by key. Each entry is the key as a
+ * <tt>long</tt> and the value as an <tt>int</tt>. The file is memory-mapped
+ * and searched in place, so a lookup reads a few pages and allocates nothing.
+ *
+ */
+public class OpeningBook {
+
+	/**
+	 * The first int of every book file, "RVOB"
+	 */
+	public static final int MAGIC = 0x52564f42;
+
+	/**
+	 * The version of the format written, {@value}
+	 */
+	public static final int VERSION = 2;
+
+	/**
+	 * The value returned by {@link #probe(long)} for a position that is not
+	 * in the book, {@value}
+	 */
+	public static final int MISS = Integer.MIN_VALUE;
+
+	/**
+	 * The number of bytes before the entries, {@value}
+	 */
+	private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+	/**
+	 * The number of bytes of an entry, {@value}
+	 */
+	private static final int ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+
+	private final ByteBuffer entries;
+
+	private final int size;
+
+	private OpeningBook(final ByteBuffer entries, final int size) {
+		this.entries = entries;
+		this.size = size;
+	}
+
+	/**
+	 * Maps the book <tt>file</tt> given into memory
+	 *
+	 * @param file
+	 *            the book file
+	 * @return the book, searched in the mapped file
+	 * @throws IOException
+	 *             if the file cannot be mapped or is not a book of the
+	 *             current version
+	 */
+	public static OpeningBook map(final Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size());
+			if (buffer.limit() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+				throw new IOException("Not an opening book");
+			}
+			final int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported opening book version " + version);
+			}
+			final int size = buffer.getInt();
+			if (buffer.limit() != HEADER_SIZE + (long) size * ENTRY_SIZE) {
+				throw new IOException("The opening book is truncated");
+			}
+			return new OpeningBook(buffer.slice(), size);
+		}
+	}
+
+	/**
+	 * Writes a book with the entries given
+	 *
+	 * @param keys
+	 *            the keys of the entries, in strictly increasing order
+	 * @param values
+	 *            the value of each key
+	 * @param count
+	 *            the number of entries
+	 * @param out
+	 *            the stream to write the book to
+	 * @throws IOException
+	 *             if the book cannot be written
+	 */
+	public static void write(final long[] keys, final int[] values, final int count,
+			final OutputStream out) throws IOException {
+		for (int i = 1; i < count; ++i) {
+			if (keys[i - 1] >= keys[i]) {
+				throw new IllegalArgumentException("The keys are not sorted");
+			}
+		}
+		final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(count);
+		for (int i = 0; i < count; ++i) {
+			data.writeLong(keys[i]);
+			data.writeInt(values[i]);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Looks up the position with the <tt>key</tt> given
+	 *
+	 * @param key
+	 *            the hash of the canonical form of the position with the side
+	 *            to move, see {@link Position#getCanonicalHash(Player)}
+	 * @return the value of the position for the player to move, or
+	 *         {@link #MISS}
+	 */
+	public int probe(final long key) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			final int middle = (low + high) >>> 1;
+			final long middleKey = entries.getLong(middle * ENTRY_SIZE);
+			if (middleKey < key) {
+				low = middle + 1;
+			} else if (middleKey > key) {
+				high = middle - 1;
+			} else {
+				return entries.getInt(middle * ENTRY_SIZE + Long.BYTES);
+			}
+		}
+		return MISS;
+	}
+
+	/**
+	 * Returns the best move of the book for the <tt>player</tt> to move in the
+	 * <tt>position</tt> given, i.e. the move to the child position of the book
+	 * with the lowest value for the opponent
+	 *
+	 * @param position
+	 *            the position, unchanged when this returns
+	 * @param player
+	 *            the player to move
+	 * @return the best move with its value for the <tt>player</tt>, or
+	 *         <tt>null</tt> if the position or all of its children are
+	 *         missing from the book
+	 */
+	public GameMove getBestMove(final Position position, final Player player) {
+		if (probe(position.getCanonicalHash(player)) == MISS) {
+			return null;
+		}
+		final Player opponent = Player.getOpponent(player);
+		int bestValue = MISS;
+		int bestCell = GameMove.NO_MOVE;
+		for (long moves = position.getMoves(player); moves != 0; moves &= moves - 1) {
+			final int cellIndex = Long.numberOfTrailingZeros(moves);
+			position.makeMove(cellIndex, player);
+			final int childValue = probe(position.getCanonicalHash(opponent));
+			position.undoMove();
+			if (childValue != MISS && -childValue > bestValue) {
+				bestValue = -childValue;
+				bestCell = cellIndex;
+			}
+		}
+		return bestCell == GameMove.NO_MOVE ? null : new GameMove(bestValue, bestCell);
+	}
+
+	/**
+	 * Returns the number of positions in the book
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+}
@@ -0,0 +1,346 @@
+package edu.depauw.csc232.reversi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ShortBuffer;
+import java.nio.file.Path;
+
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
+import edu.depauw.csc232.reversi.model.Symmetry;
+
+/**
+ * Evaluates positions with tables of pattern values, one set of tables per
+ * game phase. Each pattern is a fixed set of cells, e.g. an edge with its two
+ * X-squares, and the content of its cells is read as a number in base 3 that
+ * indexes the table of the pattern. A pattern is looked up at every place of
+ * the board where it fits by symmetry, so all of its instances share a table.
+ *
+ * The value of a position is the sum of the values of all the instances, from
+ * the point of view of the player to move, in {@link #DISC_VALUE} units per
+ * disc of final disc differential. The tables are trained offline and stored
+ * in a {@link WeightFile}, which is memory-mapped by {@link #map(Path)}.
+ *
+ */
+public class PatternEvaluator implements BoardEvaluator {
+
+	/**
+	 * The value of one disc of final disc differential, {@value}
+	 */
+	public static final int DISC_VALUE = 16;
+
+	/**
+	 * The number of game phases with their own tables, {@value}
+	 */
+	public static final int PHASE_COUNT = 6;
+
+	/**
+	 * The number of discs played in each game phase, {@value}
+	 */
+	private static final int PHASE_DISCS = 10;
+
+	/**
+	 * The number of discs at the start of the game, {@value}
+	 */
+	private static final int START_DISCS = 4;
+
+	/**
+	 * The number of pattern instances looked up in a position, {@value}
+	 */
+	public static final int INSTANCE_COUNT = 34;
+
+	/**
+	 * The offset of the value that is added to every position of a phase
+	 */
+	private static final int BIAS = 0;
+
+	/**
+	 * The offset of the table of an edge with its two X-squares
+	 */
+	private static final int EDGE = BIAS + 1;
+
+	/**
+	 * The offset of the table of a 3x3 corner region
+	 */
+	private static final int CORNER_3X3 = EDGE + 59049;
+
+	/**
+	 * The offset of the table of a 2x5 corner region
+	 */
+	private static final int CORNER_2X5 = CORNER_3X3 + 19683;
+
+	private static final int DIAGONAL_8 = CORNER_2X5 + 59049;
+
+	private static final int DIAGONAL_7 = DIAGONAL_8 + 6561;
+
+	private static final int DIAGONAL_6 = DIAGONAL_7 + 2187;
+
+	private static final int DIAGONAL_5 = DIAGONAL_6 + 729;
+
+	private static final int DIAGONAL_4 = DIAGONAL_5 + 243;
+
+	/**
+	 * The number of values of the tables of a phase
+	 */
+	public static final int TABLE_SIZE = DIAGONAL_4 + 81;
+
+	/**
+	 * The largest number of cells of a pattern, {@value}
+	 */
+	private static final int MAX_PATTERN_SIZE = 10;
+
+	/**
+	 * Gathers the cells of a diagonal into the top byte, the cell of column
+	 * <tt>x</tt> to bit <tt>x</tt>
+	 */
+	private static final long DIAGONAL_PACKER = 0x0101010101010101L;
+
+	/**
+	 * The sum of 3^i for every bit <tt>i</tt> set in each pattern
+	 */
+	private static final int[] TERNARY = new int[1 << MAX_PATTERN_SIZE];
+
+	/**
+	 * The cells of the diagonal of each length, starting on the top row and
+	 * ending on the right column
+	 */
+	private static final long[] DIAGONALS = new long[9];
+
+	static {
+		for (int pattern = 0; pattern < TERNARY.length; ++pattern) {
+			int power = 1;
+			for (int i = 0; i < MAX_PATTERN_SIZE; ++i) {
+				if ((pattern & (1 << i)) != 0) {
+					TERNARY[pattern] += power;
+				}
+				power *= 3;
+			}
+		}
+		for (int length = 1; length < DIAGONALS.length; ++length) {
+			for (int y = 0; y < length; ++y) {
+				DIAGONALS[length] |= 1L << (y * 8 + y + 8 - length);
+			}
+		}
+	}
+
+	/**
+	 * The indices of the instances of the position being evaluated, one
+	 * buffer for each search thread
+	 */
+	private final ThreadLocal<int[]> indices = ThreadLocal
+			.withInitial(() -> new int[INSTANCE_COUNT]);
+
+	/**
+	 * The tables of all the phases, one after the other
+	 */
+	private final ShortBuffer weights;
+
+	/**
+	 * Creates a new evaluator with the tables given
+	 *
+	 * @param weights
+	 *            the values of the tables of each phase, in
+	 *            {@link #DISC_VALUE} units
+	 */
+	public PatternEvaluator(final short[][] weights) {
+		if (weights.length != PHASE_COUNT) {
+			throw new IllegalArgumentException("Expected " + PHASE_COUNT + " phases");
+		}
+		this.weights = ShortBuffer.allocate(PHASE_COUNT * TABLE_SIZE);
+		for (final short[] phaseWeights : weights) {
+			if (phaseWeights.length != TABLE_SIZE) {
+				throw new IllegalArgumentException("Expected " + TABLE_SIZE + " weights");
+			}
+			this.weights.put(phaseWeights);
+		}
+	}
+
+	private PatternEvaluator(final ShortBuffer weights) {
+		this.weights = weights;
+	}
+
+	/**
+	 * Maps the tables of the weight <tt>file</tt> given, written by
+	 * {@link #save(OutputStream)}, into memory
+	 *
+	 * @param file
+	 *            the weight file
+	 * @return a new evaluator reading its tables from the mapped file
+	 * @throws IOException
+	 *             if the file cannot be mapped or does not hold the tables of
+	 *             this evaluator
+	 */
+	public static PatternEvaluator map(final Path file) throws IOException {
+		return new PatternEvaluator(WeightFile.map(file, PHASE_COUNT * TABLE_SIZE));
+	}
+
+	/**
+	 * Reads the tables written by {@link #save(OutputStream)} into the heap
+	 *
+	 * @param in
+	 *            the stream to read the tables from
+	 * @return a new evaluator with the tables read
+	 * @throws IOException
+	 *             if the tables cannot be read
+	 */
+	public static PatternEvaluator load(final InputStream in) throws IOException {
+		return new PatternEvaluator(WeightFile.read(in, PHASE_COUNT * TABLE_SIZE));
+	}
+
+	/**
+	 * Writes the tables of this evaluator as a {@link WeightFile}
+	 *
+	 * @param out
+	 *            the stream to write the tables to
+	 * @throws IOException
+	 *             if the tables cannot be written
+	 */
+	public void save(final OutputStream out) throws IOException {
+		WeightFile.write(weights, out);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getValue(final Position board, final Player player) {
+		final long own = board.getDiscs(player);
+		final long opponent = board.getDiscs(Player.getOpponent(player));
+		final int phaseOffset = getPhase(Long.bitCount(own | opponent)) * TABLE_SIZE;
+		final int[] instances = indices.get();
+		getIndices(own, opponent, instances);
+		int value = weights.get(phaseOffset + BIAS);
+		for (final int index : instances) {
+			value += weights.get(phaseOffset + index);
+		}
+		return player.getSign() * value;
+	}
+
+	/**
+	 * Returns the game phase of a position with the number of discs given
+	 *
+	 * @param discCount
+	 *            the number of discs on the board
+	 * @return the phase whose tables evaluate the position
+	 */
+	public static int getPhase(final int discCount) {
+		return Math.min((discCount - START_DISCS) / PHASE_DISCS, PHASE_COUNT - 1);
+	}
+
+	/**
+	 * Looks up the table index of every pattern instance of a position. The
+	 * indices are offsets into the tables of a phase, so that the value of
+	 * the position is the sum of the values at these offsets and the bias at
+	 * offset zero.
+	 *
+	 * @param own
+	 *            the discs of the player to move
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @param indices
+	 *            the array of {@link #INSTANCE_COUNT} indices to fill in
+	 */
+	public static void getIndices(final long own, final long opponent, final int[] indices) {
+		// the position seen through each of the 8 symmetries of the board, so
+		// that every instance of a pattern is read from the same cells
+		final long own1 = Symmetry.mirrorHorizontal(own);
+		final long own2 = Symmetry.flipVertical(own);
+		final long own3 = Symmetry.flipVertical(own1);
+		final long own4 = Symmetry.transpose(own);
+		final long own5 = Symmetry.mirrorHorizontal(own4);
+		final long own6 = Symmetry.flipVertical(own4);
+		final long own7 = Symmetry.flipVertical(own5);
+		final long opponent1 = Symmetry.mirrorHorizontal(opponent);
+		final long opponent2 = Symmetry.flipVertical(opponent);
+		final long opponent3 = Symmetry.flipVertical(opponent1);
+		final long opponent4 = Symmetry.transpose(opponent);
+		final long opponent5 = Symmetry.mirrorHorizontal(opponent4);
+		final long opponent6 = Symmetry.flipVertical(opponent4);
+		final long opponent7 = Symmetry.flipVertical(opponent5);
+
+		indices[0] = EDGE + getIndex(getEdge(own), getEdge(opponent));
+		indices[1] = EDGE + getIndex(getEdge(own2), getEdge(opponent2));
+		indices[2] = EDGE + getIndex(getEdge(own4), getEdge(opponent4));
+		indices[3] = EDGE + getIndex(getEdge(own6), getEdge(opponent6));
+
+		indices[4] = CORNER_3X3 + getIndex(getCorner3x3(own), getCorner3x3(opponent));
+		indices[5] = CORNER_3X3 + getIndex(getCorner3x3(own1), getCorner3x3(opponent1));
+		indices[6] = CORNER_3X3 + getIndex(getCorner3x3(own2), getCorner3x3(opponent2));
+		indices[7] = CORNER_3X3 + getIndex(getCorner3x3(own3), getCorner3x3(opponent3));
+
+		indices[8] = CORNER_2X5 + getIndex(getCorner2x5(own), getCorner2x5(opponent));
+		indices[9] = CORNER_2X5 + getIndex(getCorner2x5(own1), getCorner2x5(opponent1));
+		indices[10] = CORNER_2X5 + getIndex(getCorner2x5(own2), getCorner2x5(opponent2));
+		indices[11] = CORNER_2X5 + getIndex(getCorner2x5(own3), getCorner2x5(opponent3));
+		indices[12] = CORNER_2X5 + getIndex(getCorner2x5(own4), getCorner2x5(opponent4));
+		indices[13] = CORNER_2X5 + getIndex(getCorner2x5(own5), getCorner2x5(opponent5));
+		indices[14] = CORNER_2X5 + getIndex(getCorner2x5(own6), getCorner2x5(opponent6));
+		indices[15] = CORNER_2X5 + getIndex(getCorner2x5(own7), getCorner2x5(opponent7));
+
+		indices[16] = DIAGONAL_8 + getIndex(getDiagonal(own, 8), getDiagonal(opponent, 8));
+		indices[17] = DIAGONAL_8 + getIndex(getDiagonal(own1, 8), getDiagonal(opponent1, 8));
+
+		// the diagonals above and below the main diagonal, then the ones above
+		// and below the anti-diagonal
+		int i = 18;
+		for (int length = 7; length >= 4; --length) {
+			final int offset = getDiagonalOffset(length);
+			indices[i++] = offset
+					+ getIndex(getDiagonal(own, length), getDiagonal(opponent, length));
+			indices[i++] = offset
+					+ getIndex(getDiagonal(own4, length), getDiagonal(opponent4, length));
+			indices[i++] = offset
+					+ getIndex(getDiagonal(own1, length), getDiagonal(opponent1, length));
+			indices[i++] = offset
+					+ getIndex(getDiagonal(own2, length), getDiagonal(opponent2, length));
+		}
+	}
+
+	private static int getDiagonalOffset(final int length) {
+		switch (length) {
+		case 7:
+			return DIAGONAL_7;
+		case 6:
+			return DIAGONAL_6;
+		case 5:
+			return DIAGONAL_5;
+		default:
+			return DIAGONAL_4;
+		}
+	}
+
+	private static int getIndex(final int own, final int opponent) {
+		return TERNARY[own] + 2 * TERNARY[opponent];
+	}
+
+	/**
+	 * Returns the top row, then the cells <tt>b2</tt> and <tt>g2</tt>
+	 */
+	private static int getEdge(final long discs) {
+		return (int) ((discs & 0xff) | ((discs >>> 1) & 0x100) | ((discs >>> 5) & 0x200));
+	}
+
+	/**
+	 * Returns the cells <tt>a1</tt> to <tt>c3</tt>, row by row
+	 */
+	private static int getCorner3x3(final long discs) {
+		return (int) ((discs & 0x7) | ((discs >>> 5) & 0x38) | ((discs >>> 10) & 0x1c0));
+	}
+
+	/**
+	 * Returns the cells <tt>a1</tt> to <tt>e2</tt>, row by row
+	 */
+	private static int getCorner2x5(final long discs) {
+		return (int) ((discs & 0x1f) | ((discs >>> 3) & 0x3e0));
+	}
+
+	/**
+	 * Returns the cells of the diagonal of the <tt>length</tt> given that
+	 * starts on the top row and ends on the right column
+	 */
+	private static int getDiagonal(final long discs, final int length) {
+		return (int) (((discs & DIAGONALS[length]) * DIAGONAL_PACKER) >>> (64 - length));
+	}
+
+}
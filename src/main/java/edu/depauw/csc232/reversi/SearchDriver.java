@@ -0,0 +1,25 @@
+package edu.depauw.csc232.reversi;
+
+/**
+ * The ways in which the {@link GameSolver} chooses the search windows of an
+ * iteration of its iterative deepening
+ *
+ */
+public enum SearchDriver {
+	/**
+	 * Each iteration is searched once, with a window that admits all the
+	 * values
+	 */
+	FULL_WINDOW,
+	/**
+	 * Each iteration starts with a narrow window around the value of the
+	 * previous one, which is widened on the side where the search fails
+	 */
+	ASPIRATION,
+	/**
+	 * Each iteration is a series of null window searches that close in on the
+	 * value, starting from the value of the previous one (MTD(f)). It relies
+	 * on the transposition table to avoid searching the same nodes again.
+	 */
+	MTDF;
+}
@@ -0,0 +1,26 @@
+package edu.depauw.csc232.reversi;
+
+/**
+ * The ways in which the {@link GameSolver} can spread its search over threads
+ *
+ */
+public enum SearchMode {
+	/**
+	 * The whole search runs on the solver thread
+	 */
+	SERIAL,
+	/**
+	 * The first move at the root is searched on the solver thread, then the
+	 * remaining root moves are searched in parallel on the solver's
+	 * {@link java.util.concurrent.ForkJoinPool}, sharing the best value found
+	 * so far as their bound (Young Brothers Wait)
+	 */
+	PARALLEL,
+	/**
+	 * The solver thread searches as in {@link #SERIAL} mode, while helper
+	 * threads on the solver's {@link java.util.concurrent.ForkJoinPool} run
+	 * their own iterative deepening of the same position. The threads only
+	 * share results through the transposition table (Lazy SMP).
+	 */
+	LAZY_SMP;
+}
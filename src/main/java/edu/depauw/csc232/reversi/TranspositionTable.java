@@ -0,0 +1,288 @@
+package edu.depauw.csc232.reversi;
+
+/**
+ * A fixed-size hash table of search results, keyed by the Zobrist hash of the
+ * position. The table is split in buckets of two entries: the first one keeps
+ * the deepest result seen for the bucket in the current search, the second one
+ * is always replaced.
+ *
+ * Entries are packed in a single <tt>long</tt>, so probing and storing does no
+ * allocation. Use the static getters to read a probed entry.
+ *
+ * The table may be shared by several search threads without locking: the key
+ * of each slot is stored XOR-ed with its entry, so an entry torn by a
+ * concurrent store no longer matches its key and is read as a miss. The
+ * counters are not synchronized and are only approximate in that case.
+ *
+ */
+public class TranspositionTable {
+
+	/**
+	 * The stored score is the exact value of the position, {@value}
+	 */
+	public static final int BOUND_EXACT = 0;
+
+	/**
+	 * The stored score is a lower bound of the value of the position, {@value}
+	 */
+	public static final int BOUND_LOWER = 1;
+
+	/**
+	 * The stored score is an upper bound of the value of the position, {@value}
+	 */
+	public static final int BOUND_UPPER = 2;
+
+	/**
+	 * The entry returned by {@link #probe(long)} when the position is not in
+	 * the table, {@value}
+	 */
+	public static final long MISS = 0L;
+
+	/**
+	 * The default size of the table in bytes, {@value}
+	 */
+	public static final long DEFAULT_MEMORY = 16L << 20;
+
+	/**
+	 * The number of bytes taken by one entry, {@value}
+	 */
+	private static final int ENTRY_SIZE = 16;
+
+	/**
+	 * {@value}
+	 */
+	private static final int BUCKET_SIZE = 2;
+
+	private static final int DEPTH_SHIFT = 32;
+
+	private static final int BOUND_SHIFT = 40;
+
+	private static final int MOVE_SHIFT = 42;
+
+	private static final int GENERATION_SHIFT = 50;
+
+	private static final long VALID = 1L << 62;
+
+	private static final int NO_MOVE = 0xff;
+
+	private static final int GENERATION_MASK = 0xff;
+
+	private final long[] keys;
+
+	private final long[] entries;
+
+	private final int bucketMask;
+
+	private int generation;
+
+	private long probes;
+
+	private long hits;
+
+	private long stores;
+
+	private long collisions;
+
+	/**
+	 * Creates a new transposition table that uses at most <tt>memory</tt>
+	 * bytes. The number of entries is rounded down to a power of two.
+	 *
+	 * @param memory
+	 *            the memory budget of the table in bytes
+	 */
+	public TranspositionTable(final long memory) {
+		final long requested = Math.max(BUCKET_SIZE, memory / ENTRY_SIZE);
+		final int size = (int) Long.highestOneBit(Math.min(requested, 1L << 30));
+		keys = new long[size];
+		entries = new long[size];
+		bucketMask = size / BUCKET_SIZE - 1;
+	}
+
+	/**
+	 * Looks up the position with the <tt>hash</tt> given
+	 *
+	 * @param hash
+	 *            the Zobrist hash of the position
+	 * @return the packed entry of the position, or {@link #MISS}
+	 */
+	public long probe(final long hash) {
+		++probes;
+		final int index = getBucket(hash);
+		for (int i = index; i < index + BUCKET_SIZE; ++i) {
+			final long entry = entries[i];
+			if (entry != MISS && (keys[i] ^ entry) == hash) {
+				++hits;
+				return entry;
+			}
+		}
+		return MISS;
+	}
+
+	/**
+	 * Stores the result of searching the position with the <tt>hash</tt>
+	 * given.
+	 *
+	 * @param hash
+	 *            the Zobrist hash of the position
+	 * @param depth
+	 *            the depth to which the position has been searched
+	 * @param bound
+	 *            one of {@link #BOUND_EXACT}, {@link #BOUND_LOWER} or
+	 *            {@link #BOUND_UPPER}
+	 * @param score
+	 *            the score of the position
+	 * @param move
+	 *            the index of the best cell found, {@link GameMove#NO_MOVE} if
+	 *            there is none
+	 */
+	public void store(final long hash, final int depth, final int bound, final int score,
+			final int move) {
+		++stores;
+		final int index = getBucket(hash);
+		final long first = entries[index];
+		final int replaced;
+		if (first == MISS || (keys[index] ^ first) == hash
+				|| getGeneration(first) != generation || depth >= getDepth(first)) {
+			replaced = index;
+		} else {
+			replaced = index + 1;
+		}
+		final long old = entries[replaced];
+		if (old != MISS && (keys[replaced] ^ old) != hash) {
+			++collisions;
+		}
+		final long entry = pack(depth, bound, score, move);
+		keys[replaced] = hash ^ entry;
+		entries[replaced] = entry;
+	}
+
+	/**
+	 * Marks the start of a new search. Entries of earlier searches are kept,
+	 * but no longer protected by the depth-preferred replacement.
+	 */
+	public void newSearch() {
+		generation = (generation + 1) & GENERATION_MASK;
+	}
+
+	/**
+	 * Removes all the entries from the table and resets the counters
+	 */
+	public void clear() {
+		for (int i = 0; i < entries.length; ++i) {
+			keys[i] = 0L;
+			entries[i] = MISS;
+		}
+		probes = 0;
+		hits = 0;
+		stores = 0;
+		collisions = 0;
+	}
+
+	/**
+	 * Returns the number of entries in the table
+	 *
+	 * @return the number of entries in the table
+	 */
+	public int size() {
+		return entries.length;
+	}
+
+	/**
+	 * Returns the number of lookups made
+	 *
+	 * @return the number of calls to {@link #probe(long)}
+	 */
+	public long getProbes() {
+		return probes;
+	}
+
+	/**
+	 * Returns the number of lookups that found the position
+	 *
+	 * @return the number of successful calls to {@link #probe(long)}
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of results stored
+	 *
+	 * @return the number of calls to {@link #store(long, int, int, int, int)}
+	 */
+	public long getStores() {
+		return stores;
+	}
+
+	/**
+	 * Returns the number of stores that overwrote the entry of another position
+	 *
+	 * @return the number of entries lost to other positions
+	 */
+	public long getCollisions() {
+		return collisions;
+	}
+
+	/**
+	 * Returns the score of a probed entry
+	 *
+	 * @param entry
+	 *            the entry returned by {@link #probe(long)}
+	 * @return the stored score
+	 */
+	public static int getScore(final long entry) {
+		return (int) entry;
+	}
+
+	/**
+	 * Returns the search depth of a probed entry
+	 *
+	 * @param entry
+	 *            the entry returned by {@link #probe(long)}
+	 * @return the stored depth
+	 */
+	public static int getDepth(final long entry) {
+		return (int) (entry >>> DEPTH_SHIFT) & 0xff;
+	}
+
+	/**
+	 * Returns the bound type of a probed entry
+	 *
+	 * @param entry
+	 *            the entry returned by {@link #probe(long)}
+	 * @return one of {@link #BOUND_EXACT}, {@link #BOUND_LOWER} or
+	 *         {@link #BOUND_UPPER}
+	 */
+	public static int getBound(final long entry) {
+		return (int) (entry >>> BOUND_SHIFT) & 0x3;
+	}
+
+	/**
+	 * Returns the best move of a probed entry
+	 *
+	 * @param entry
+	 *            the entry returned by {@link #probe(long)}
+	 * @return the index of the stored best cell, {@link GameMove#NO_MOVE} if
+	 *         there is none
+	 */
+	public static int getMove(final long entry) {
+		final int move = (int) (entry >>> MOVE_SHIFT) & 0xff;
+		return move == NO_MOVE ? GameMove.NO_MOVE : move;
+	}
+
+	private static int getGeneration(final long entry) {
+		return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+	}
+
+	private long pack(final int depth, final int bound, final int score, final int move) {
+		final long packedMove = move == GameMove.NO_MOVE ? NO_MOVE : move;
+		return VALID | ((long) generation << GENERATION_SHIFT) | (packedMove << MOVE_SHIFT)
+				| ((long) bound << BOUND_SHIFT) | ((long) (depth & 0xff) << DEPTH_SHIFT)
+				| (score & 0xffffffffL);
+	}
+
+	private int getBucket(final long hash) {
+		return ((int) (hash ^ (hash >>> 32)) & bucketMask) * BUCKET_SIZE;
+	}
+
+}
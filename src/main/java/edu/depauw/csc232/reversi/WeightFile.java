@@ -0,0 +1,135 @@
+package edu.depauw.csc232.reversi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Helper class for the binary files holding the weight tables of an
+ * evaluator. A file starts with a header of three big-endian ints: the magic
+ * number {@link #MAGIC}, the format {@link #VERSION} and the number of
+ * weights, followed by the weights as big-endian shorts.
+ *
+ * Files are memory-mapped rather than read, so the weights are never copied to
+ * the heap: evaluators read them straight from the mapping, and all the
+ * mappings of the same file, in one JVM or in several, share the pages of the
+ * operating system's file cache.
+ *
+ */
+public final class WeightFile {
+
+	/**
+	 * The first int of every weight file, "RVWT"
+	 */
+	public static final int MAGIC = 0x52565754;
+
+	/**
+	 * The version of the format written, {@value}
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The number of bytes before the weights, {@value}
+	 */
+	private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+	private WeightFile() {
+		// static helper
+	}
+
+	/**
+	 * Maps the weights of the <tt>file</tt> given into memory. The file is
+	 * closed when this returns, while the mapping stays valid until it is
+	 * garbage collected.
+	 *
+	 * @param file
+	 *            the weight file
+	 * @param count
+	 *            the number of weights expected
+	 * @return a read-only view of the weights in the file
+	 * @throws IOException
+	 *             if the file cannot be mapped, or is not a weight file with
+	 *             the version and the number of weights expected
+	 */
+	public static ShortBuffer map(final Path file, final int count) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if (size != HEADER_SIZE + (long) count * Short.BYTES) {
+				throw new IOException(file + " has " + size + " bytes, expected "
+						+ (HEADER_SIZE + (long) count * Short.BYTES));
+			}
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			checkHeader(buffer.getInt(), buffer.getInt(), buffer.getInt(), count);
+			return buffer.slice().asShortBuffer();
+		}
+	}
+
+	/**
+	 * Reads the weights from the <tt>in</tt> stream given into the heap, for
+	 * weights that are not in a file of their own, e.g. inside a jar
+	 *
+	 * @param in
+	 *            the stream to read the weights from
+	 * @param count
+	 *            the number of weights expected
+	 * @return the weights read
+	 * @throws IOException
+	 *             if the weights cannot be read, or are not in a weight file
+	 *             with the version and the number of weights expected
+	 */
+	public static ShortBuffer read(final InputStream in, final int count) throws IOException {
+		final DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+		checkHeader(data.readInt(), data.readInt(), data.readInt(), count);
+		final ByteBuffer buffer = ByteBuffer.allocate(count * Short.BYTES);
+		data.readFully(buffer.array());
+		return buffer.asShortBuffer();
+	}
+
+	/**
+	 * Writes the <tt>weights</tt> given with the header of the current
+	 * version
+	 *
+	 * @param weights
+	 *            the weights to be written, from index zero to the limit
+	 * @param out
+	 *            the stream to write the weights to
+	 * @throws IOException
+	 *             if the weights cannot be written
+	 */
+	public static void write(final ShortBuffer weights, final OutputStream out)
+			throws IOException {
+		final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(weights.limit());
+		for (int i = 0; i < weights.limit(); ++i) {
+			data.writeShort(weights.get(i));
+		}
+		data.flush();
+	}
+
+	private static void checkHeader(final int magic, final int version, final int weightCount,
+			final int count) throws IOException {
+		if (magic != MAGIC) {
+			throw new IOException("Not a weight file");
+		}
+		if (version != VERSION) {
+			throw new IOException("Unsupported weight file version " + version);
+		}
+		if (weightCount != count) {
+			throw new IOException("The weight file has " + weightCount + " weights, expected "
+					+ count);
+		}
+	}
+
+}
@@ -0,0 +1,28 @@
+package edu.depauw.csc232.reversi.listeners;
+
+/**
+ * Implementations of this interface are notified about the progress of the
+ * iterative deepening search of the game solver
+ *
+ */
+public interface SearchProgressListener {
+
+	/**
+	 * A callback fired when the solver has completed the search to a new depth
+	 *
+	 * @param depth
+	 *            the depth that has just been completed
+	 * @param value
+	 *            the value of the best move at this depth, for the player to
+	 *            move
+	 * @param cellIndex
+	 *            the index of the cell of the best move at this depth
+	 * @param nodes
+	 *            the number of nodes visited while searching to this depth
+	 * @param elapsedTime
+	 *            the time spent on the search of this move so far, in
+	 *            milliseconds
+	 */
+	void onDepthCompleted(final int depth, final int value, final int cellIndex,
+			final long nodes, final long elapsedTime);
+}
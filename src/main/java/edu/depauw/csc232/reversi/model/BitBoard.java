@@ -0,0 +1,230 @@
+package edu.depauw.csc232.reversi.model;
+
+import edu.depauw.csc232.reversi.Game;
+import edu.depauw.csc232.reversi.move.FlipCalculator;
+import edu.depauw.csc232.reversi.move.MoveGenerator;
+
+/**
+ * A model class, representing the discs on the board as two 64-bit words, one
+ * per player. Bit <tt>i</tt> of a word is set when the player owns the cell
+ * with index <tt>i</tt>.
+ *
+ */
+public class BitBoard {
+
+	/**
+	 * {@value}
+	 */
+	public static final int SIZE = Game.BOARD_ROW_COUNT * Game.BOARD_COLUMN_COUNT;
+
+	protected long black;
+
+	protected long white;
+
+	/**
+	 * Creates a new empty bit board
+	 */
+	public BitBoard() {
+		this(0L, 0L);
+	}
+
+	/**
+	 * Creates a new bit board from the words given
+	 *
+	 * @param black
+	 *            the discs owned by the black player
+	 * @param white
+	 *            the discs owned by the white player
+	 */
+	public BitBoard(final long black, final long white) {
+		this.black = black;
+		this.white = white;
+	}
+
+	/**
+	 * Returns the word with a single bit set for the cell with the
+	 * <tt>cellIndex</tt> given
+	 *
+	 * @param cellIndex
+	 *            the index of the cell
+	 * @return the word with only the bit of the cell at <tt>cellIndex</tt> set
+	 */
+	public static long bit(final int cellIndex) {
+		return 1L << cellIndex;
+	}
+
+	/**
+	 * Returns the discs that belong to the <tt>player</tt> given. For
+	 * {@link Player#UNKNOWN} the empty cells are returned.
+	 *
+	 * @param player
+	 *            the player whose discs are to be retrieved
+	 * @return the word with the bits of all the cells owned by the
+	 *         <tt>player</tt> set
+	 */
+	public long getDiscs(final Player player) {
+		switch (player) {
+		case BLACK:
+			return black;
+		case WHITE:
+			return white;
+		default:
+			return getEmpty();
+		}
+	}
+
+	/**
+	 * Returns the cells that are not owned by any of the players
+	 *
+	 * @return the word with the bits of all the empty cells set
+	 */
+	public long getEmpty() {
+		return ~(black | white);
+	}
+
+	/**
+	 * Returns the owner of the cell with the <tt>cellIndex</tt> given
+	 *
+	 * @param cellIndex
+	 *            the index of the cell whose owner is to be retrieved
+	 * @return the owner of the cell at <tt>cellIndex</tt>
+	 */
+	public Player getOwner(final int cellIndex) {
+		final long bit = bit(cellIndex);
+		if ((black & bit) != 0) {
+			return Player.BLACK;
+		} else if ((white & bit) != 0) {
+			return Player.WHITE;
+		}
+		return Player.UNKNOWN;
+	}
+
+	/**
+	 * Returns a {@link Cell} snapshot of the cell with the <tt>cellIndex</tt>
+	 * given. Changing the returned cell does not affect the board.
+	 *
+	 * @param cellIndex
+	 *            the index of the cell that is to be retrieved
+	 * @return a new {@link Cell} with the index and the owner of the cell at
+	 *         <tt>cellIndex</tt>
+	 */
+	public Cell get(final int cellIndex) {
+		return new Cell(cellIndex, getOwner(cellIndex));
+	}
+
+	/**
+	 * Returns the number of discs that belong to the <tt>player</tt> given
+	 *
+	 * @param player
+	 *            the player whose discs are to be counted
+	 * @return the number of discs on the board owned by the <tt>player</tt>
+	 */
+	public int getDiscCount(final Player player) {
+		return Long.bitCount(getDiscs(player));
+	}
+
+	/**
+	 * Marks the cell with the <tt>cellIndex</tt> given as owned by the
+	 * <tt>player</tt> specified. No other cells are affected.
+	 *
+	 * @param cellIndex
+	 *            the index of the cell that is to be updated
+	 * @param player
+	 *            the new owner of the cell, {@link Player#UNKNOWN} to empty it
+	 */
+	public void set(final int cellIndex, final Player player) {
+		final long bit = bit(cellIndex);
+		black &= ~bit;
+		white &= ~bit;
+		if (player == Player.BLACK) {
+			black |= bit;
+		} else if (player == Player.WHITE) {
+			white |= bit;
+		}
+	}
+
+	/**
+	 * Places a disc for the <tt>player</tt> on the cell with the
+	 * <tt>cellIndex</tt> given and flips all the opponent discs that are
+	 * surrounded as a result.
+	 *
+	 * @param cellIndex
+	 *            the index of the cell that is to be taken
+	 * @param player
+	 *            the player who is taking the cell
+	 * @return the word with the bits of all the changed cells set, including
+	 *         the one at <tt>cellIndex</tt>
+	 */
+	public long take(final int cellIndex, final Player player) {
+		final long changed = getFlips(cellIndex, player) | bit(cellIndex);
+		if (player == Player.BLACK) {
+			black |= changed;
+			white &= ~changed;
+		} else {
+			white |= changed;
+			black &= ~changed;
+		}
+		return changed;
+	}
+
+	/**
+	 * Returns whether or not placing a disc at <tt>cellIndex</tt> is legal for
+	 * the <tt>player</tt> given.
+	 *
+	 * @param cellIndex
+	 *            the index of the cell at which a disc is to be placed
+	 * @param player
+	 *            the player for whom the move is checked
+	 * @return whether or not the <tt>player</tt> can place a disc at
+	 *         <tt>cellIndex</tt>
+	 */
+	public boolean isMovePermitted(final int cellIndex, final Player player) {
+		return (getMoves(player) & bit(cellIndex)) != 0;
+	}
+
+	/**
+	 * Returns all the legal moves for the <tt>player</tt> given
+	 *
+	 * @param player
+	 *            the player whose moves are to be retrieved
+	 * @return the word with the bits of all the cells the <tt>player</tt> can
+	 *         place a disc on set
+	 */
+	public long getMoves(final Player player) {
+		return MoveGenerator.getMoves(getDiscs(player), getDiscs(Player.getOpponent(player)));
+	}
+
+	/**
+	 * Returns the opponent discs that would be flipped if the <tt>player</tt>
+	 * placed a disc at the <tt>cellIndex</tt> given
+	 *
+	 * @param cellIndex
+	 *            the index of the cell at which a disc is placed
+	 * @param player
+	 *            the player who is placing the disc
+	 * @return the word with the bits of all the discs that would be flipped set
+	 */
+	public long getFlips(final int cellIndex, final Player player) {
+		return FlipCalculator.getFlips(cellIndex, getDiscs(player),
+				getDiscs(Player.getOpponent(player)));
+	}
+
+	/**
+	 * Returns the number of cells on the board
+	 *
+	 * @return the number of cells on the board
+	 */
+	public int size() {
+		return SIZE;
+	}
+
+	/**
+	 * Returns a copy of this bit board
+	 *
+	 * @return a new {@link BitBoard} with the same discs as this one
+	 */
+	public BitBoard copy() {
+		return new BitBoard(black, white);
+	}
+
+}
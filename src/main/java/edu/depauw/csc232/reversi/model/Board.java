@@ -2,20 +2,18 @@ package edu.depauw.csc232.reversi.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import edu.depauw.csc232.reversi.BoardEvaluator;
+import edu.depauw.csc232.reversi.HeuristicEvaluator;
 import edu.depauw.csc232.reversi.Game;
 import edu.depauw.csc232.reversi.listeners.ModelObserver;
-import edu.depauw.csc232.reversi.move.MoveChecker;
-import edu.depauw.csc232.reversi.util.CellTaker;
 
 /**
- * A model class, representing the board
+ * A model class, representing the board. The discs are kept in a
+ * {@link BitBoard}; {@link Cell} instances are only created on demand.
  * 
  * @author martin
  * 
@@ -44,26 +42,21 @@ public class Board {
 
 	private final Set<ModelObserver> observers;
 
-	private final Map<Integer, Cell> board;
+	private final Position board;
 
-	private final MoveChecker checker;
+	private BoardEvaluator evaluator;
 
-	private final CellTaker cellTaker;
-
-	private final BoardEvaluator evaluator;
+	private Player sideToMove;
 
 	public Board() {
-		board = new LinkedHashMap<Integer, Cell>();
-		for (int i = 0; i < Game.BOARD_ROW_COUNT; ++i) {
-			for (int j = 0; j < Game.BOARD_COLUMN_COUNT; ++j) {
-				final Cell currentCell = new Cell(j, i);
-				board.put(currentCell.getIndex(), currentCell);
-			}
-		}
+		this(new Position(new BitBoard()), Player.BLACK);
+	}
 
-		checker = new MoveChecker(this);
-		cellTaker = new CellTaker(checker, this);
-		evaluator = new BoardEvaluator();
+	private Board(final Position board, final Player sideToMove) {
+		this.board = board;
+		this.sideToMove = sideToMove;
+
+		evaluator = new HeuristicEvaluator();
 
 		observers = new LinkedHashSet<ModelObserver>();
 	}
@@ -81,9 +74,12 @@ public class Board {
 	 *            taken
 	 */
 	public void takeCell(final int cellIndex, final Player player) {
-		final Collection<Cell> takenCells = cellTaker.takeCell(cellIndex, player);
-		notifyBoardChanged(takenCells);
-		notifyResultChanged(getDiscCount(Player.WHITE), getDiscCount(Player.BLACK));
+		final long takenCells = board.take(cellIndex, player);
+		sideToMove = Player.getOpponent(player);
+		if (!observers.isEmpty()) {
+			notifyBoardChanged(toCells(takenCells));
+			notifyResultChanged(getDiscCount(Player.WHITE), getDiscCount(Player.BLACK));
+		}
 	}
 
 	/**
@@ -99,7 +95,7 @@ public class Board {
 	 *         cell with <tt>cellIndex</tt>
 	 */
 	public boolean isMovePermitted(final int cellIndex, final Player player) {
-		return checker.isMovePermitted(cellIndex, player);
+		return board.isMovePermitted(cellIndex, player);
 	}
 
 	/**
@@ -142,7 +138,8 @@ public class Board {
 
 	/**
 	 * Returns the {@link Cell} instance associated with the <tt>index</tt>
-	 * specified
+	 * specified. The cell is a snapshot; use {@link #takeCell(int, Player)} or
+	 * {@link #takeCells(Collection)} to change the board.
 	 * 
 	 * @param cellIndex
 	 *            the index, the cell corresponding to which is to be retrieved
@@ -165,7 +162,7 @@ public class Board {
 	 *         and <tt>y</tt> coordinates given
 	 */
 	public Cell get(final int x, final int y) {
-		return board.get(y * Game.BOARD_COLUMN_COUNT + x);
+		return get(y * Game.BOARD_COLUMN_COUNT + x);
 	}
 
 	/**
@@ -178,10 +175,10 @@ public class Board {
 	 */
 	public Collection<Cell> getNextMoves(final Player player) {
 		final List<Cell> result = new ArrayList<Cell>();
-		for (int i = 0; i < size(); ++i) {
-			if (isMovePermitted(i, player)) {
-				result.add(new Cell(i));
-			}
+		long moves = board.getMoves(player);
+		while (moves != 0) {
+			result.add(new Cell(Long.numberOfTrailingZeros(moves)));
+			moves &= moves - 1;
 		}
 		return result;
 	}
@@ -198,12 +195,13 @@ public class Board {
 	 */
 	public Collection<Board> getNextBoards(final Player player) {
 		final List<Board> result = new ArrayList<Board>();
-		for (int i = 0; i < size(); ++i) {
-			if (isMovePermitted(i, player)) {
-				final Board newBoard = clone();
-				newBoard.takeCell(i, player);
-				result.add(newBoard);
-			}
+		long moves = board.getMoves(player);
+		while (moves != 0) {
+			final Board newBoard = clone();
+			newBoard.board.take(Long.numberOfTrailingZeros(moves), player);
+			newBoard.sideToMove = Player.getOpponent(player);
+			result.add(newBoard);
+			moves &= moves - 1;
 		}
 		return result;
 	}
@@ -216,7 +214,28 @@ public class Board {
 	 * @return the value of the board as computed for the <tt>player</tt> given.
 	 */
 	public int getValue(final Player player) {
-		return evaluator.getValue(this, player);
+		return evaluator.getValue(board, player);
+	}
+
+	/**
+	 * Sets the evaluator that computes the value of the board, a
+	 * {@link HeuristicEvaluator} by default
+	 * 
+	 * @param evaluator
+	 *            the evaluator of the board
+	 */
+	public void setEvaluator(final BoardEvaluator evaluator) {
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * Returns a copy of the current position, that can be searched in place
+	 * without affecting this board.
+	 * 
+	 * @return a new {@link Position} with the same discs as this board
+	 */
+	public Position getPosition() {
+		return new Position(board);
 	}
 
 	/**
@@ -228,14 +247,10 @@ public class Board {
 	 * @return
 	 */
 	public Collection<Cell> getDifference(final Board other) {
-		final List<Cell> difference = new ArrayList<Cell>();
-		for (final Cell cell : board.values()) {
-			final Cell otherCell = other.get(cell.getIndex());
-			if (!cell.hasSameOwner(otherCell)) {
-				difference.add(cell);
-			}
-		}
-		return difference;
+		final long difference = (board.getDiscs(Player.BLACK) ^ other.board
+				.getDiscs(Player.BLACK)) | (board.getDiscs(Player.WHITE) ^ other.board
+				.getDiscs(Player.WHITE));
+		return toCells(difference);
 	}
 
 	/**
@@ -247,7 +262,11 @@ public class Board {
 	 */
 	public void takeCells(final Collection<Cell> cells) {
 		for (final Cell cell : cells) {
-			board.get(cell.getIndex()).take(cell.getOwner());
+			if (board.getOwner(cell.getIndex()) == Player.UNKNOWN
+					&& cell.getOwner() != Player.UNKNOWN) {
+				sideToMove = Player.getOpponent(cell.getOwner());
+			}
+			board.set(cell.getIndex(), cell.getOwner());
 		}
 		notifyBoardChanged(cells);
 		notifyResultChanged(getDiscCount(Player.WHITE), getDiscCount(Player.BLACK));
@@ -283,7 +302,7 @@ public class Board {
 	 *         given
 	 */
 	public int getStableDiscsCount(final Player player) {
-		return checker.getStableDiscCount(player);
+		return board.getStableDiscCount(player);
 	}
 
 	/**
@@ -297,7 +316,18 @@ public class Board {
 	 *         <tt>player</tt> given.
 	 */
 	public boolean hasNextMove(final Player player) {
-		return !getNextMoves(player).isEmpty();
+		return board.getMoves(player) != 0;
+	}
+
+	/**
+	 * Returns the number of possible moves for the <tt>player</tt> given.
+	 * 
+	 * @param player
+	 *            the player whose possible moves are to be counted
+	 * @return the number of cells at which the <tt>player</tt> can place a disc
+	 */
+	public int getNextMoveCount(final Player player) {
+		return Long.bitCount(board.getMoves(player));
 	}
 
 	/**
@@ -311,13 +341,7 @@ public class Board {
 	 *         <tt>player</tt> specified.
 	 */
 	public int getDiscCount(Player player) {
-		int result = 0;
-		for (final Cell cell : board.values()) {
-			if (cell.isOwnedBy(player)) {
-				++result;
-			}
-		}
-		return result;
+		return board.getDiscCount(player);
 	}
 
 	/**
@@ -326,12 +350,11 @@ public class Board {
 	@Override
 	public String toString() {
 		final StringBuilder builder = new StringBuilder();
-		for (final Cell cell : board.values()) {
-			if (cell.getIndex() % 8 == 0) {
+		for (int i = 0; i < size(); ++i) {
+			if (i % 8 == 0) {
 				builder.append("\n");
 			}
-			builder.append(" ").append(cell.getIndex()).append(",").append(cell.getOwner())
-					.append(" ");
+			builder.append(" ").append(i).append(",").append(board.getOwner(i)).append(" ");
 		}
 		return builder.toString();
 	}
@@ -341,11 +364,62 @@ public class Board {
 	 */
 	@Override
 	public Board clone() {
-		final Board board = new Board();
-		for (final Cell cell : this.board.values()) {
-			board.get(cell.getIndex()).take(cell.getOwner());
+		return new Board(new Position(board), sideToMove);
+	}
+
+	/**
+	 * Returns the Zobrist hash of the board, covering all the discs and the
+	 * side to move. The hash is updated incrementally on every change.
+	 * 
+	 * @return the 64-bit hash of the current position
+	 */
+	public long getHash() {
+		return board.getHash(sideToMove);
+	}
+
+	/**
+	 * Returns the player who is to move next, i.e. the opponent of the player
+	 * who took a cell last. Skipped turns are not taken into account.
+	 * 
+	 * @return the player who is to move next
+	 */
+	public Player getSideToMove() {
+		return sideToMove;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		final long hash = getHash();
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		final Board other = (Board) obj;
+		return sideToMove == other.sideToMove
+				&& board.getDiscs(Player.BLACK) == other.board.getDiscs(Player.BLACK)
+				&& board.getDiscs(Player.WHITE) == other.board.getDiscs(Player.WHITE);
+	}
+
+	private Collection<Cell> toCells(long cells) {
+		final List<Cell> result = new ArrayList<Cell>(Long.bitCount(cells));
+		while (cells != 0) {
+			result.add(get(Long.numberOfTrailingZeros(cells)));
+			cells &= cells - 1;
 		}
-		return board;
+		return result;
 	}
 
 	private void notifyBoardChanged(final Collection<Cell> changedCells) {
@@ -0,0 +1,51 @@
+package edu.depauw.csc232.reversi.model;
+
+/**
+ * Helper class holding the value of owning each cell of the board. Corners are
+ * worth the most, while the cells next to them give the opponent a way into
+ * the corner.
+ *
+ */
+public final class LocationValues {
+
+	private static final int[] VALUES = { 50, -1, 5, 2, 2, 5, -1, 50, //
+			-1, -10, 1, 1, 1, 1, -10, -1, //
+			5, 1, 1, 1, 1, 1, 1, 5, //
+			2, 1, 1, 0, 0, 1, 1, 2, //
+			2, 1, 1, 0, 0, 1, 1, 2, //
+			5, 1, 1, 1, 1, 1, 1, 5, //
+			-1, -10, 1, 1, 1, 1, -10, -1, //
+			50, -1, 5, 2, 2, 5, -1, 50 };
+
+	private LocationValues() {
+		// static helper
+	}
+
+	/**
+	 * Returns the value of owning the cell with the <tt>cellIndex</tt> given
+	 *
+	 * @param cellIndex
+	 *            the index of the cell
+	 * @return the value of a disc on the cell
+	 */
+	public static int getValue(final int cellIndex) {
+		return VALUES[cellIndex];
+	}
+
+	/**
+	 * Returns the sum of the values of all the <tt>discs</tt> given
+	 *
+	 * @param discs
+	 *            the word with the bits of the discs set
+	 * @return the sum of the values of the cells of the discs
+	 */
+	public static int getValue(long discs) {
+		int result = 0;
+		while (discs != 0) {
+			result += VALUES[Long.numberOfTrailingZeros(discs)];
+			discs &= discs - 1;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,191 @@
+package edu.depauw.csc232.reversi.model;
+
+import edu.depauw.csc232.reversi.move.StabilityCalculator;
+
+/**
+ * A mutable board position, meant to be walked in place by the search. Moves
+ * are played with {@link #makeMove(int, Player)} and taken back with
+ * {@link #undoMove()}; the undo stack only keeps the cell, the flipped discs
+ * and the previous hash of each move. The Zobrist hash of the discs and the
+ * location value used by the evaluation are kept up to date on every change,
+ * so that they never need to be computed from the whole board.
+ *
+ */
+public class Position extends BitBoard {
+
+	private final long[] undoFlips;
+
+	private final int[] undoCells;
+
+	private final long[] undoHashes;
+
+	private final int[] undoLocationValues;
+
+	private int moveCount;
+
+	private long hash;
+
+	/**
+	 * The sum of the {@link LocationValues} of the black discs, minus the one
+	 * of the white discs
+	 */
+	private int locationValue;
+
+	/**
+	 * Creates a new position with the same discs as the <tt>board</tt> given
+	 *
+	 * @param board
+	 *            the board whose discs are to be copied
+	 */
+	public Position(final BitBoard board) {
+		super(board.black, board.white);
+		undoFlips = new long[SIZE];
+		undoCells = new int[SIZE];
+		undoHashes = new long[SIZE];
+		undoLocationValues = new int[SIZE];
+		hash = Zobrist.hash(black, white, -1L);
+		locationValue = LocationValues.getValue(black) - LocationValues.getValue(white);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void set(final int cellIndex, final Player player) {
+		final long oldBlack = black;
+		final long oldWhite = white;
+		super.set(cellIndex, player);
+		updateHash(oldBlack, oldWhite, bit(cellIndex));
+		updateLocationValue(oldBlack, oldWhite, bit(cellIndex));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long take(final int cellIndex, final Player player) {
+		final long oldBlack = black;
+		final long oldWhite = white;
+		final long changed = super.take(cellIndex, player);
+		updateHash(oldBlack, oldWhite, changed);
+		updateLocationValue(oldBlack, oldWhite, changed);
+		return changed;
+	}
+
+	/**
+	 * Places a disc for the <tt>player</tt> at the cell with the
+	 * <tt>cellIndex</tt> given, flips the surrounded opponent discs and
+	 * records the move so that it can be taken back.
+	 *
+	 * @param cellIndex
+	 *            the index of the cell at which a disc is placed
+	 * @param player
+	 *            the player making the move
+	 * @return the word with the bits of all the flipped discs set
+	 */
+	public long makeMove(final int cellIndex, final Player player) {
+		final long flips = getFlips(cellIndex, player);
+		final long changed = flips | bit(cellIndex);
+		if (player == Player.BLACK) {
+			black |= changed;
+			white ^= flips;
+		} else {
+			white |= changed;
+			black ^= flips;
+		}
+		undoFlips[moveCount] = flips;
+		undoCells[moveCount] = cellIndex;
+		undoHashes[moveCount] = hash;
+		undoLocationValues[moveCount] = locationValue;
+		++moveCount;
+		hash ^= Zobrist.getKey(cellIndex, player) ^ Zobrist.getFlipKey(flips);
+		locationValue += player.getSign()
+				* (LocationValues.getValue(cellIndex) + 2 * LocationValues.getValue(flips));
+		return flips;
+	}
+
+	/**
+	 * Takes back the last move made with {@link #makeMove(int, Player)}
+	 */
+	public void undoMove() {
+		--moveCount;
+		final long flips = undoFlips[moveCount];
+		final long changed = flips | bit(undoCells[moveCount]);
+		if ((black & changed) != 0) {
+			black ^= changed;
+			white |= flips;
+		} else {
+			white ^= changed;
+			black |= flips;
+		}
+		hash = undoHashes[moveCount];
+		locationValue = undoLocationValues[moveCount];
+	}
+
+	/**
+	 * Returns the number of moves that can currently be taken back
+	 *
+	 * @return the number of moves on the undo stack
+	 */
+	public int getMoveCount() {
+		return moveCount;
+	}
+
+	/**
+	 * Returns the Zobrist hash of this position
+	 *
+	 * @param sideToMove
+	 *            the player who is to move in this position
+	 * @return the hash of the discs and the side to move
+	 */
+	public long getHash(final Player sideToMove) {
+		return hash ^ Zobrist.getSideKey(sideToMove);
+	}
+
+	/**
+	 * Returns the hash of the canonical form of this position, the same for
+	 * all of its images by the symmetries of the board, see {@link Symmetry}
+	 *
+	 * @param sideToMove
+	 *            the player who is to move in this position
+	 * @return the hash of the canonical form of the discs and the side to move
+	 */
+	public long getCanonicalHash(final Player sideToMove) {
+		return Symmetry.getCanonicalHash(black, white, sideToMove);
+	}
+
+	/**
+	 * Returns the sum of the {@link LocationValues} of the black discs, minus
+	 * the one of the white discs
+	 *
+	 * @return the location value of this position for the black player
+	 */
+	public int getLocationValue() {
+		return locationValue;
+	}
+
+	/**
+	 * Returns the number of stable discs in this position for the
+	 * <tt>player</tt> given
+	 *
+	 * @param player
+	 *            the player whose stable discs are to be counted
+	 * @return the number of stable discs owned by the <tt>player</tt>
+	 */
+	public int getStableDiscCount(final Player player) {
+		return StabilityCalculator.getStableDiscCount(getDiscs(player),
+				getDiscs(Player.getOpponent(player)));
+	}
+
+	private void updateHash(final long oldBlack, final long oldWhite, final long changed) {
+		hash ^= Zobrist.hash(oldBlack, oldWhite, changed) ^ Zobrist.hash(black, white, changed);
+	}
+
+	private void updateLocationValue(final long oldBlack, final long oldWhite, final long changed) {
+		locationValue += LocationValues.getValue(black & changed)
+				- LocationValues.getValue(white & changed)
+				- LocationValues.getValue(oldBlack & changed)
+				+ LocationValues.getValue(oldWhite & changed);
+	}
+
+}
@@ -0,0 +1,84 @@
+package edu.depauw.csc232.reversi.model;
+
+import java.util.Random;
+
+/**
+ * Helper class for playing random games, e.g. to get test, benchmark or
+ * training positions. Every legal move is equally likely.
+ *
+ */
+public final class RandomGame {
+
+	private RandomGame() {
+		// static helper
+	}
+
+	/**
+	 * Returns one of the <tt>moves</tt> given, picked at random
+	 *
+	 * @param random
+	 *            the source of randomness
+	 * @param moves
+	 *            the word with the bits of the legal moves set, not zero
+	 * @return the index of the cell of the move picked
+	 */
+	public static int getRandomMove(final Random random, long moves) {
+		for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; --skip) {
+			moves &= moves - 1;
+		}
+		return Long.numberOfTrailingZeros(moves);
+	}
+
+	/**
+	 * Plays random moves from the start of the game, see
+	 * {@link Board#startGame()}, until at most <tt>empties</tt> cells are left
+	 * and the player to move has a legal move, or until the game is over. A
+	 * player without a legal move passes.
+	 *
+	 * @param random
+	 *            the source of randomness
+	 * @param empties
+	 *            the number of empty cells at which to stop
+	 * @return the board reached, whose {@link Board#getSideToMove()} is the
+	 *         player to move
+	 */
+	public static Board play(final Random random, final int empties) {
+		final Board board = new Board();
+		board.startGame();
+		while (true) {
+			final Position position = board.getPosition();
+			Player player = board.getSideToMove();
+			long moves = position.getMoves(player);
+			if (moves != 0 && Long.bitCount(position.getEmpty()) <= empties) {
+				return board;
+			}
+			if (moves == 0) {
+				player = Player.getOpponent(player);
+				moves = position.getMoves(player);
+				if (moves == 0) {
+					return board;
+				}
+			}
+			board.takeCell(getRandomMove(random, moves), player);
+		}
+	}
+
+	/**
+	 * Plays random moves like {@link #play(Random, int)}, and returns the
+	 * discs of the position reached, as the endgame search takes them
+	 *
+	 * @param random
+	 *            the source of randomness
+	 * @param empties
+	 *            the number of empty cells at which to stop
+	 * @return the discs of the player to move and the discs of the opponent
+	 */
+	public static long[] getRandomDiscs(final Random random, final int empties) {
+		final Board board = play(random, empties);
+		final Player player = board.getSideToMove();
+		final Position position = board.getPosition();
+		return new long[] { position.getDiscs(player),
+				position.getDiscs(Player.getOpponent(player)) };
+	}
+
+}
@@ -0,0 +1,197 @@
+package edu.depauw.csc232.reversi.model;
+
+/**
+ * Helper class for the eight symmetries of the board: the rotations and the
+ * reflections. A symmetry is numbered by the transforms it applies, in this
+ * order: {@link #TRANSPOSE}, then {@link #MIRROR_HORIZONTAL}, then
+ * {@link #FLIP_VERTICAL}. Each of them is a few delta swaps on the bitboard.
+ *
+ * Positions that only differ by a symmetry have the same value and the same
+ * moves, up to the symmetry. The canonical form of a position is the one of
+ * its eight images with the smallest discs, so it can be used as the key of
+ * books and caches, which then hold every position once instead of up to
+ * eight times.
+ *
+ */
+public final class Symmetry {
+
+	/**
+	 * The number of symmetries, {@value}
+	 */
+	public static final int COUNT = 8;
+
+	/**
+	 * The symmetry that leaves the board unchanged, {@value}
+	 */
+	public static final int IDENTITY = 0;
+
+	/**
+	 * Swaps the columns <tt>a</tt> and <tt>h</tt>, <tt>b</tt> and <tt>g</tt>
+	 * and so on, {@value}
+	 */
+	public static final int MIRROR_HORIZONTAL = 1;
+
+	/**
+	 * Swaps the rows <tt>1</tt> and <tt>8</tt>, <tt>2</tt> and <tt>7</tt> and
+	 * so on, {@value}
+	 */
+	public static final int FLIP_VERTICAL = 2;
+
+	/**
+	 * Flips the board about the <tt>a1</tt>-<tt>h8</tt> diagonal, so that
+	 * columns become rows, {@value}
+	 */
+	public static final int TRANSPOSE = 4;
+
+	private Symmetry() {
+		// static helper
+	}
+
+	/**
+	 * Returns the image of the <tt>discs</tt> given by a symmetry
+	 *
+	 * @param discs
+	 *            the word with the bits of the discs set
+	 * @param symmetry
+	 *            the symmetry, from 0 to {@link #COUNT} - 1
+	 * @return the word with the bits of the images of the discs set
+	 */
+	public static long transform(long discs, final int symmetry) {
+		if ((symmetry & TRANSPOSE) != 0) {
+			discs = transpose(discs);
+		}
+		if ((symmetry & MIRROR_HORIZONTAL) != 0) {
+			discs = mirrorHorizontal(discs);
+		}
+		if ((symmetry & FLIP_VERTICAL) != 0) {
+			discs = flipVertical(discs);
+		}
+		return discs;
+	}
+
+	/**
+	 * Returns the image of the cell with the <tt>cellIndex</tt> given by a
+	 * symmetry
+	 *
+	 * @param cellIndex
+	 *            the index of the cell
+	 * @param symmetry
+	 *            the symmetry, from 0 to {@link #COUNT} - 1
+	 * @return the index of the image of the cell
+	 */
+	public static int transformCell(final int cellIndex, final int symmetry) {
+		return Long.numberOfTrailingZeros(transform(BitBoard.bit(cellIndex), symmetry));
+	}
+
+	/**
+	 * Returns the symmetry that undoes the one given
+	 *
+	 * @param symmetry
+	 *            the symmetry, from 0 to {@link #COUNT} - 1
+	 * @return the inverse of the symmetry
+	 */
+	public static int inverse(final int symmetry) {
+		// mirroring after a transposition is a transposition after a flip, so
+		// these two undo one another; every other symmetry undoes itself
+		switch (symmetry) {
+		case TRANSPOSE | MIRROR_HORIZONTAL:
+			return TRANSPOSE | FLIP_VERTICAL;
+		case TRANSPOSE | FLIP_VERTICAL:
+			return TRANSPOSE | MIRROR_HORIZONTAL;
+		default:
+			return symmetry;
+		}
+	}
+
+	/**
+	 * Returns the symmetry that turns the position given into its canonical
+	 * form: the image with the smallest black discs, then the smallest white
+	 * discs
+	 *
+	 * @param black
+	 *            the black discs
+	 * @param white
+	 *            the white discs
+	 * @return the symmetry of the canonical form
+	 */
+	public static int getCanonicalSymmetry(final long black, final long white) {
+		int result = IDENTITY;
+		long bestBlack = black;
+		long bestWhite = white;
+		for (int symmetry = 1; symmetry < COUNT; ++symmetry) {
+			final long imageBlack = transform(black, symmetry);
+			if (Long.compareUnsigned(imageBlack, bestBlack) > 0) {
+				continue;
+			}
+			final long imageWhite = transform(white, symmetry);
+			if (imageBlack != bestBlack || Long.compareUnsigned(imageWhite, bestWhite) < 0) {
+				result = symmetry;
+				bestBlack = imageBlack;
+				bestWhite = imageWhite;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the Zobrist hash of the canonical form of the position given,
+	 * which is the same for all the images of the position
+	 *
+	 * @param black
+	 *            the black discs
+	 * @param white
+	 *            the white discs
+	 * @param sideToMove
+	 *            the player who is to move
+	 * @return the hash of the canonical form of the position
+	 */
+	public static long getCanonicalHash(final long black, final long white,
+			final Player sideToMove) {
+		final int symmetry = getCanonicalSymmetry(black, white);
+		return Zobrist.hash(transform(black, symmetry), transform(white, symmetry), sideToMove);
+	}
+
+	/**
+	 * Swaps the columns <tt>a</tt> and <tt>h</tt>, <tt>b</tt> and <tt>g</tt>
+	 * and so on
+	 *
+	 * @param discs
+	 *            the word with the bits of the discs set
+	 * @return the word with the bits of the images of the discs set
+	 */
+	public static long mirrorHorizontal(long discs) {
+		discs = ((discs >>> 1) & 0x5555555555555555L) | ((discs & 0x5555555555555555L) << 1);
+		discs = ((discs >>> 2) & 0x3333333333333333L) | ((discs & 0x3333333333333333L) << 2);
+		return ((discs >>> 4) & 0x0f0f0f0f0f0f0f0fL) | ((discs & 0x0f0f0f0f0f0f0f0fL) << 4);
+	}
+
+	/**
+	 * Swaps the rows <tt>1</tt> and <tt>8</tt>, <tt>2</tt> and <tt>7</tt> and
+	 * so on
+	 *
+	 * @param discs
+	 *            the word with the bits of the discs set
+	 * @return the word with the bits of the images of the discs set
+	 */
+	public static long flipVertical(final long discs) {
+		return Long.reverseBytes(discs);
+	}
+
+	/**
+	 * Flips the discs about the <tt>a1</tt>-<tt>h8</tt> diagonal, so that
+	 * columns become rows
+	 *
+	 * @param discs
+	 *            the word with the bits of the discs set
+	 * @return the word with the bits of the images of the discs set
+	 */
+	public static long transpose(long discs) {
+		long swapped = 0x0f0f0f0f00000000L & (discs ^ (discs << 28));
+		discs ^= swapped ^ (swapped >>> 28);
+		swapped = 0x3333000033330000L & (discs ^ (discs << 14));
+		discs ^= swapped ^ (swapped >>> 14);
+		swapped = 0x5500550055005500L & (discs ^ (discs << 7));
+		return discs ^ swapped ^ (swapped >>> 7);
+	}
+
+}
@@ -0,0 +1,144 @@
+package edu.depauw.csc232.reversi.model;
+
+/**
+ * Helper class holding the random keys for Zobrist hashing of positions. A
+ * position hash is the XOR of the key of every disc on the board, plus
+ * {@link #SIDE_TO_MOVE} when the white player is to move.
+ *
+ * The keys are generated from a fixed seed, so hashes are the same in every
+ * run and can be stored on disk.
+ *
+ */
+public final class Zobrist {
+
+	/**
+	 * {@value}
+	 */
+	private static final long SEED = 0x2545f4914f6cdd1dL;
+
+	private static final long[] BLACK_KEYS = new long[BitBoard.SIZE];
+
+	private static final long[] WHITE_KEYS = new long[BitBoard.SIZE];
+
+	/**
+	 * The XOR of the black and the white key of each cell, i.e. the change of
+	 * the hash when the disc on the cell is flipped
+	 */
+	private static final long[] FLIP_KEYS = new long[BitBoard.SIZE];
+
+	/**
+	 * The key that is added to the hash when the white player is to move
+	 */
+	public static final long SIDE_TO_MOVE;
+
+	static {
+		long state = SEED;
+		for (int i = 0; i < BitBoard.SIZE; ++i) {
+			state += 0x9e3779b97f4a7c15L;
+			BLACK_KEYS[i] = mix(state);
+			state += 0x9e3779b97f4a7c15L;
+			WHITE_KEYS[i] = mix(state);
+			FLIP_KEYS[i] = BLACK_KEYS[i] ^ WHITE_KEYS[i];
+		}
+		state += 0x9e3779b97f4a7c15L;
+		SIDE_TO_MOVE = mix(state);
+	}
+
+	private Zobrist() {
+		// static helper
+	}
+
+	/**
+	 * Returns the key of a disc of the <tt>player</tt> given on the cell with
+	 * <tt>cellIndex</tt>
+	 *
+	 * @param cellIndex
+	 *            the index of the cell
+	 * @param player
+	 *            the owner of the disc, {@link Player#UNKNOWN} for no disc
+	 * @return the key of the disc, zero for an empty cell
+	 */
+	public static long getKey(final int cellIndex, final Player player) {
+		switch (player) {
+		case BLACK:
+			return BLACK_KEYS[cellIndex];
+		case WHITE:
+			return WHITE_KEYS[cellIndex];
+		default:
+			return 0L;
+		}
+	}
+
+	/**
+	 * Returns the change of the hash when all the <tt>flips</tt> given change
+	 * their owner
+	 *
+	 * @param flips
+	 *            the discs that are flipped
+	 * @return the XOR of the flip keys of all the discs
+	 */
+	public static long getFlipKey(long flips) {
+		long result = 0L;
+		while (flips != 0) {
+			result ^= FLIP_KEYS[Long.numberOfTrailingZeros(flips)];
+			flips &= flips - 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the hash of the discs given, restricted to the cells in the
+	 * <tt>mask</tt>
+	 *
+	 * @param black
+	 *            the discs of the black player
+	 * @param white
+	 *            the discs of the white player
+	 * @param mask
+	 *            the cells that are to be hashed
+	 * @return the XOR of the keys of all the discs inside the <tt>mask</tt>
+	 */
+	public static long hash(final long black, final long white, final long mask) {
+		long result = 0L;
+		for (long discs = black & mask; discs != 0; discs &= discs - 1) {
+			result ^= BLACK_KEYS[Long.numberOfTrailingZeros(discs)];
+		}
+		for (long discs = white & mask; discs != 0; discs &= discs - 1) {
+			result ^= WHITE_KEYS[Long.numberOfTrailingZeros(discs)];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the hash of the position given
+	 *
+	 * @param black
+	 *            the discs of the black player
+	 * @param white
+	 *            the discs of the white player
+	 * @param sideToMove
+	 *            the player who is to move
+	 * @return the Zobrist hash of the position
+	 */
+	public static long hash(final long black, final long white, final Player sideToMove) {
+		return hash(black, white, -1L) ^ getSideKey(sideToMove);
+	}
+
+	/**
+	 * Returns the part of the hash that encodes the <tt>player</tt> to move
+	 *
+	 * @param player
+	 *            the player who is to move
+	 * @return {@link #SIDE_TO_MOVE} for the white player, zero otherwise
+	 */
+	public static long getSideKey(final Player player) {
+		return player == Player.WHITE ? SIDE_TO_MOVE : 0L;
+	}
+
+	private static long mix(long value) {
+		value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+		return value ^ (value >>> 31);
+	}
+
+}
@@ -0,0 +1,99 @@
+package edu.depauw.csc232.reversi.move;
+
+import edu.depauw.csc232.reversi.Game;
+
+/**
+ * Helper class for computing the discs that are flipped by a move. For every
+ * cell the rays in all eight directions are precomputed, so a move is resolved
+ * with a few bit operations per direction and no allocation.
+ *
+ */
+public final class FlipCalculator {
+
+	/**
+	 * The column increment for each direction. The first four directions go
+	 * towards higher cell indexes, the last four towards lower ones.
+	 */
+	private static final int[] DIRECTION_X = { 1, 0, 1, -1, -1, 0, -1, 1 };
+
+	/**
+	 * The row increment for each direction, matching {@link #DIRECTION_X}
+	 */
+	private static final int[] DIRECTION_Y = { 0, 1, 1, 1, 0, -1, -1, -1 };
+
+	/**
+	 * The number of directions going towards higher cell indexes, {@value}
+	 */
+	private static final int POSITIVE_DIRECTION_COUNT = 4;
+
+	/**
+	 * The cells on the ray from each cell in each direction, excluding the
+	 * cell itself, indexed by <tt>cellIndex * 8 + direction</tt>
+	 */
+	private static final long[] RAYS = createRays();
+
+	private FlipCalculator() {
+		// static helper
+	}
+
+	/**
+	 * Returns the opponent discs that are flipped when a disc is placed at
+	 * <tt>cellIndex</tt> by the player owning the <tt>own</tt> discs.
+	 *
+	 * @param cellIndex
+	 *            the index of the cell at which a disc is placed
+	 * @param own
+	 *            the discs of the player who is placing the disc
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @return the word with the bits of all the flipped discs set, zero if the
+	 *         move flips nothing
+	 */
+	public static long getFlips(final int cellIndex, final long own, final long opponent) {
+		final int base = cellIndex * MoveGenerator.DIRECTION_COUNT;
+		long result = 0L;
+		for (int direction = 0; direction < POSITIVE_DIRECTION_COUNT; ++direction) {
+			final long ray = RAYS[base + direction];
+			final long blockers = ray & ~opponent;
+			// the closest blocker has the lowest index
+			final long closest = blockers & -blockers;
+			if ((closest & own) != 0) {
+				result |= ray & (closest - 1);
+			}
+		}
+		for (int direction = POSITIVE_DIRECTION_COUNT; direction < MoveGenerator.DIRECTION_COUNT; ++direction) {
+			final long ray = RAYS[base + direction];
+			final long blockers = ray & ~opponent;
+			// the closest blocker has the highest index
+			final long closest = Long.highestOneBit(blockers);
+			if ((closest & own) != 0) {
+				result |= ray & -(closest << 1);
+			}
+		}
+		return result;
+	}
+
+	private static long[] createRays() {
+		final long[] rays = new long[Game.BOARD_ROW_COUNT * Game.BOARD_COLUMN_COUNT
+				* MoveGenerator.DIRECTION_COUNT];
+		for (int y = 0; y < Game.BOARD_ROW_COUNT; ++y) {
+			for (int x = 0; x < Game.BOARD_COLUMN_COUNT; ++x) {
+				final int cellIndex = y * Game.BOARD_COLUMN_COUNT + x;
+				for (int direction = 0; direction < MoveGenerator.DIRECTION_COUNT; ++direction) {
+					long ray = 0L;
+					int currentX = x + DIRECTION_X[direction];
+					int currentY = y + DIRECTION_Y[direction];
+					while (currentX >= 0 && currentX < Game.BOARD_COLUMN_COUNT && currentY >= 0
+							&& currentY < Game.BOARD_ROW_COUNT) {
+						ray |= 1L << (currentY * Game.BOARD_COLUMN_COUNT + currentX);
+						currentX += DIRECTION_X[direction];
+						currentY += DIRECTION_Y[direction];
+					}
+					rays[cellIndex * MoveGenerator.DIRECTION_COUNT + direction] = ray;
+				}
+			}
+		}
+		return rays;
+	}
+
+}
@@ -0,0 +1,105 @@
+package edu.depauw.csc232.reversi.move;
+
+/**
+ * Helper class for generating all the legal moves of a player at once. The
+ * discs of both players are shifted as 64-bit words in each of the eight
+ * directions, so every cell on the board is checked in parallel.
+ *
+ */
+public final class MoveGenerator {
+
+	/**
+	 * All the cells except the ones in the leftmost column
+	 */
+	public static final long NOT_LEFT_COLUMN = 0xfefefefefefefefeL;
+
+	/**
+	 * All the cells except the ones in the rightmost column
+	 */
+	public static final long NOT_RIGHT_COLUMN = 0x7f7f7f7f7f7f7f7fL;
+
+	/**
+	 * The number of directions in which discs can be flipped, {@value}
+	 */
+	public static final int DIRECTION_COUNT = 8;
+
+	/**
+	 * The index increment for each direction. Positive values are shifted to
+	 * the left, negative ones to the right.
+	 */
+	private static final int[] SHIFTS = { 1, -1, 8, -8, 9, 7, -7, -9 };
+
+	/**
+	 * The cells that a disc may land on after a shift in the respective
+	 * direction without wrapping around the board edge
+	 */
+	private static final long[] MASKS = { NOT_LEFT_COLUMN, NOT_RIGHT_COLUMN, -1L, -1L,
+			NOT_LEFT_COLUMN, NOT_RIGHT_COLUMN, NOT_LEFT_COLUMN, NOT_RIGHT_COLUMN };
+
+	private MoveGenerator() {
+		// static helper
+	}
+
+	/**
+	 * Returns all the legal moves for the player owning the <tt>own</tt> discs
+	 * given.
+	 *
+	 * @param own
+	 *            the discs of the player who is to move
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @return the word with the bits of all the cells at which the player can
+	 *         place a disc set
+	 */
+	public static long getMoves(final long own, final long opponent) {
+		final long empty = ~(own | opponent);
+		long result = 0L;
+		for (int direction = 0; direction < DIRECTION_COUNT; ++direction) {
+			final int amount = SHIFTS[direction];
+			final long mask = MASKS[direction];
+			// the opponent discs that may be part of a line in this direction
+			final long line = opponent & mask;
+			long candidates = shift(own, amount) & line;
+			candidates |= shift(candidates, amount) & line;
+			candidates |= shift(candidates, amount) & line;
+			candidates |= shift(candidates, amount) & line;
+			candidates |= shift(candidates, amount) & line;
+			candidates |= shift(candidates, amount) & line;
+			result |= shift(candidates, amount) & mask & empty;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns whether or not the player owning the <tt>own</tt> discs given has
+	 * any legal move.
+	 *
+	 * @param own
+	 *            the discs of the player who is to move
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @return whether or not there is at least one legal move for the player
+	 */
+	public static boolean hasMoves(final long own, final long opponent) {
+		return getMoves(own, opponent) != 0;
+	}
+
+	/**
+	 * Returns the number of legal moves for the player owning the <tt>own</tt>
+	 * discs given.
+	 *
+	 * @param own
+	 *            the discs of the player who is to move
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @return the number of legal moves for the player
+	 */
+	public static int getMoveCount(final long own, final long opponent) {
+		return Long.bitCount(getMoves(own, opponent));
+	}
+
+	private static long shift(final long discs, final int amount) {
+		return amount > 0 ? discs << amount : discs >>> -amount;
+	}
+
+}
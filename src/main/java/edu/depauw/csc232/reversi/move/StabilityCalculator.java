@@ -0,0 +1,262 @@
+package edu.depauw.csc232.reversi.move;
+
+import java.util.Arrays;
+
+/**
+ * Helper class for finding the stable discs of a player, i.e. the discs that
+ * cannot be flipped anymore, whatever the moves to come.
+ *
+ * The discs on the edges are looked up in a table of all the 3^8 edge
+ * configurations, and the discs whose four lines are full can never be
+ * flipped. Starting from these, a disc is stable if, in each of the four
+ * directions, its line is full or one of its neighbours is the board edge or
+ * a stable disc of the same player. This is repeated until no more stable
+ * discs are found.
+ *
+ */
+public final class StabilityCalculator {
+
+	/**
+	 * The number of cells of a line, {@value}
+	 */
+	private static final int LINE_SIZE = 8;
+
+	/**
+	 * The number of edge configurations, {@value}
+	 */
+	private static final int EDGE_COUNT = 6561;
+
+	private static final long TOP_ROW = 0x00000000000000ffL;
+
+	private static final long BOTTOM_ROW = 0xff00000000000000L;
+
+	private static final long LEFT_COLUMN = 0x0101010101010101L;
+
+	private static final long RIGHT_COLUMN = 0x8080808080808080L;
+
+	private static final long BORDER = TOP_ROW | BOTTOM_ROW | LEFT_COLUMN | RIGHT_COLUMN;
+
+	/**
+	 * Moves the cells of the left column to the top byte, the cell of row
+	 * <tt>i</tt> to bit <tt>i</tt>
+	 */
+	private static final long COLUMN_PACKER = 0x0102040810204080L;
+
+	/**
+	 * The stable discs of the first player of each edge configuration, where
+	 * the configuration of a line is the sum of 3^i for each disc of the first
+	 * player and 2 * 3^i for each disc of the second one on cell <tt>i</tt>
+	 */
+	private static final byte[] EDGE_STABILITY = new byte[EDGE_COUNT];
+
+	/**
+	 * The sum of 3^i for every bit <tt>i</tt> set in each byte
+	 */
+	private static final int[] TERNARY = new int[1 << LINE_SIZE];
+
+	/**
+	 * The cells of the left column for each packed byte
+	 */
+	private static final long[] LEFT_COLUMN_CELLS = new long[1 << LINE_SIZE];
+
+	private static final long[] DIAGONALS = new long[2 * LINE_SIZE - 1];
+
+	private static final long[] ANTI_DIAGONALS = new long[2 * LINE_SIZE - 1];
+
+	static {
+		for (int line = 0; line < TERNARY.length; ++line) {
+			int power = 1;
+			for (int i = 0; i < LINE_SIZE; ++i) {
+				if ((line & (1 << i)) != 0) {
+					TERNARY[line] += power;
+					LEFT_COLUMN_CELLS[line] |= 1L << (i * LINE_SIZE);
+				}
+				power *= 3;
+			}
+		}
+		final int[] memo = new int[EDGE_COUNT];
+		Arrays.fill(memo, -1);
+		for (int own = 0; own < TERNARY.length; ++own) {
+			for (int opponent = 0; opponent < TERNARY.length; ++opponent) {
+				if ((own & opponent) == 0) {
+					EDGE_STABILITY[TERNARY[own] + 2 * TERNARY[opponent]] = (byte) getEdgeStability(
+							own, opponent, memo);
+				}
+			}
+		}
+		for (int cell = 0; cell < LINE_SIZE * LINE_SIZE; ++cell) {
+			final int x = cell % LINE_SIZE;
+			final int y = cell / LINE_SIZE;
+			DIAGONALS[x - y + LINE_SIZE - 1] |= 1L << cell;
+			ANTI_DIAGONALS[x + y] |= 1L << cell;
+		}
+	}
+
+	private StabilityCalculator() {
+		// static helper
+	}
+
+	/**
+	 * Returns the stable discs of the player owning the <tt>own</tt> discs
+	 * given
+	 *
+	 * @param own
+	 *            the discs of the player
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @return the word with the bits of all the stable discs of the player set
+	 */
+	public static long getStableDiscs(final long own, final long opponent) {
+		final long occupied = own | opponent;
+		final long fullRows = getFullRows(occupied);
+		final long fullColumns = getFullColumns(occupied);
+		final long fullDiagonals = getFullLines(occupied, DIAGONALS);
+		final long fullAntiDiagonals = getFullLines(occupied, ANTI_DIAGONALS);
+
+		long stable = (getEdgeStableDiscs(own, opponent) | (fullRows & fullColumns
+				& fullDiagonals & fullAntiDiagonals))
+				& own;
+		if (stable == 0) {
+			return 0L;
+		}
+		final long horizontal = fullRows | LEFT_COLUMN | RIGHT_COLUMN;
+		final long vertical = fullColumns | TOP_ROW | BOTTOM_ROW;
+		final long diagonal = fullDiagonals | BORDER;
+		final long antiDiagonal = fullAntiDiagonals | BORDER;
+		long previous;
+		do {
+			previous = stable;
+			final long leftRight = ((stable << 1) & MoveGenerator.NOT_LEFT_COLUMN)
+					| ((stable >>> 1) & MoveGenerator.NOT_RIGHT_COLUMN);
+			final long upDown = (stable << LINE_SIZE) | (stable >>> LINE_SIZE);
+			final long diagonalNeighbours = ((stable << 9) & MoveGenerator.NOT_LEFT_COLUMN)
+					| ((stable >>> 9) & MoveGenerator.NOT_RIGHT_COLUMN);
+			final long antiDiagonalNeighbours = ((stable << 7) & MoveGenerator.NOT_RIGHT_COLUMN)
+					| ((stable >>> 7) & MoveGenerator.NOT_LEFT_COLUMN);
+			stable |= own & (horizontal | leftRight) & (vertical | upDown)
+					& (diagonal | diagonalNeighbours) & (antiDiagonal | antiDiagonalNeighbours);
+		} while (stable != previous);
+		return stable;
+	}
+
+	/**
+	 * Returns the number of stable discs of the player owning the <tt>own</tt>
+	 * discs given
+	 *
+	 * @param own
+	 *            the discs of the player
+	 * @param opponent
+	 *            the discs of the opponent
+	 * @return the number of stable discs of the player
+	 */
+	public static int getStableDiscCount(final long own, final long opponent) {
+		return Long.bitCount(getStableDiscs(own, opponent));
+	}
+
+	/**
+	 * Returns the stable discs of the player on the four edges of the board
+	 */
+	private static long getEdgeStableDiscs(final long own, final long opponent) {
+		long result = EDGE_STABILITY[getEdgeIndex((int) own & 0xff, (int) opponent & 0xff)]
+				& 0xffL;
+		result |= (EDGE_STABILITY[getEdgeIndex((int) (own >>> 56), (int) (opponent >>> 56))]
+				& 0xffL) << 56;
+		result |= LEFT_COLUMN_CELLS[EDGE_STABILITY[getEdgeIndex(packLeftColumn(own),
+				packLeftColumn(opponent))] & 0xff];
+		result |= LEFT_COLUMN_CELLS[EDGE_STABILITY[getEdgeIndex(packLeftColumn(own >>> 7),
+				packLeftColumn(opponent >>> 7))] & 0xff] << 7;
+		return result;
+	}
+
+	private static int getEdgeIndex(final int own, final int opponent) {
+		return TERNARY[own] + 2 * TERNARY[opponent];
+	}
+
+	private static int packLeftColumn(final long discs) {
+		return (int) (((discs & LEFT_COLUMN) * COLUMN_PACKER) >>> 56);
+	}
+
+	private static long getFullRows(final long occupied) {
+		long result = 0L;
+		for (long row = TOP_ROW; row != 0; row <<= LINE_SIZE) {
+			if ((occupied & row) == row) {
+				result |= row;
+			}
+		}
+		return result;
+	}
+
+	private static long getFullColumns(final long occupied) {
+		long result = 0L;
+		for (long column = LEFT_COLUMN; column != 0; column = (column << 1) & ~LEFT_COLUMN) {
+			if ((occupied & column) == column) {
+				result |= column;
+			}
+		}
+		return result;
+	}
+
+	private static long getFullLines(final long occupied, final long[] lines) {
+		long result = 0L;
+		for (final long line : lines) {
+			if ((occupied & line) == line) {
+				result |= line;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the discs of the first player on a single line that stay his in
+	 * every sequence of moves on the line. Discs on an edge can only be
+	 * flipped along the edge, so this is exact for the edges of the board.
+	 * Any empty cell may be played, as the move may be legal through another
+	 * line.
+	 */
+	private static int getEdgeStability(final int own, final int opponent, final int[] memo) {
+		final int index = TERNARY[own] + 2 * TERNARY[opponent];
+		if (memo[index] >= 0) {
+			return memo[index];
+		}
+		int stable = own;
+		final int empty = ~(own | opponent) & 0xff;
+		for (int x = 0; x < LINE_SIZE && stable != 0; ++x) {
+			final int cell = 1 << x;
+			if ((empty & cell) != 0) {
+				final int ownFlips = getLineFlips(x, own, opponent);
+				stable &= getEdgeStability(own | ownFlips | cell, opponent & ~ownFlips, memo);
+				final int opponentFlips = getLineFlips(x, opponent, own);
+				stable &= getEdgeStability(own & ~opponentFlips, opponent | opponentFlips | cell,
+						memo);
+			}
+		}
+		memo[index] = stable;
+		return stable;
+	}
+
+	/**
+	 * Returns the discs flipped on a single line when the player owning the
+	 * <tt>own</tt> discs places one at <tt>x</tt>
+	 */
+	private static int getLineFlips(final int x, final int own, final int opponent) {
+		int result = 0;
+		int flips = 0;
+		int i = x + 1;
+		while (i < LINE_SIZE && (opponent & (1 << i)) != 0) {
+			flips |= 1 << i++;
+		}
+		if (i < LINE_SIZE && (own & (1 << i)) != 0) {
+			result |= flips;
+		}
+		flips = 0;
+		i = x - 1;
+		while (i >= 0 && (opponent & (1 << i)) != 0) {
+			flips |= 1 << i--;
+		}
+		if (i >= 0 && (own & (1 << i)) != 0) {
+			result |= flips;
+		}
+		return result;
+	}
+
+}
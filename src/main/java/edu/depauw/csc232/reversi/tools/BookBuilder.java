@@ -0,0 +1,325 @@
+package edu.depauw.csc232.reversi.tools;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.depauw.csc232.reversi.GameSolver;
+import edu.depauw.csc232.reversi.OpeningBook;
+import edu.depauw.csc232.reversi.model.BitBoard;
+import edu.depauw.csc232.reversi.model.Board;
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
+
+/**
+ * Builds an {@link OpeningBook}. Every position reachable from the start of
+ * the game in at most the given number of plies is added to the book, once
+ * for all of its images by the symmetries of the board. The
+ * positions at the last ply are scored by a {@link GameSolver} search to the
+ * given depth, one search per thread on every core, and the values of the
+ * other positions are the negamax of the values of their children.
+ *
+ * The value of every scored position is appended to a journal next to the
+ * book file as soon as it is known, so that an interrupted run can be started
+ * again with the same arguments and only searches the positions it has not
+ * scored yet. The journal starts with the search depth, and a run with
+ * another depth refuses it rather than mixing the values of both depths in
+ * one book. A position in which the player to move has to pass has a single
+ * child: the same discs with the opponent to move, which is expanded even at
+ * the last ply.
+ *
+ * Usage: <tt>BookBuilder &lt;file&gt; [plies] [depth] [threads]</tt>
+ *
+ */
+public final class BookBuilder {
+
+	/**
+	 * {@value}
+	 */
+	private static final int DEFAULT_PLIES = 6;
+
+	/**
+	 * {@value}
+	 */
+	private static final int DEFAULT_DEPTH = 8;
+
+	/**
+	 * The value of a disc of final disc differential of a finished game, much
+	 * larger than any heuristic value, {@value}
+	 */
+	private static final int FINAL_DISC_VALUE = 100000;
+
+	/**
+	 * Long enough for every search to reach the requested depth, {@value}
+	 */
+	private static final long TIME_BUDGET = 3600000L;
+
+	/**
+	 * The number of bytes of the journal header: the search depth, {@value}
+	 */
+	private static final int JOURNAL_HEADER_SIZE = Integer.BYTES;
+
+	/**
+	 * The number of bytes of a journal record: the key and the value of a
+	 * position, {@value}
+	 */
+	private static final int JOURNAL_RECORD_SIZE = Long.BYTES + Integer.BYTES;
+
+	/**
+	 * The number of scored positions between two progress lines, {@value}
+	 */
+	private static final int PROGRESS_INTERVAL = 100;
+
+	private BookBuilder() {
+		// command line tool
+	}
+
+	public static void main(final String[] args) throws IOException, InterruptedException,
+			ExecutionException {
+		if (args.length == 0) {
+			System.err.println("Usage: BookBuilder <file> [plies] [depth] [threads]");
+			System.exit(1);
+		}
+		final Path file = Paths.get(args[0]);
+		final int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+		final int depth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+		final int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime()
+				.availableProcessors();
+
+		final Board start = new Board();
+		start.startGame();
+		final Map<Long, Node> nodes = new HashMap<>();
+		final List<Node> frontier = new ArrayList<>();
+		final Node root = expand(start.getPosition(), Player.BLACK, plies, nodes, frontier);
+
+		final Path journalFile = Paths.get(args[0] + ".journal");
+		final Map<Long, Integer> journal = readJournal(journalFile, depth);
+		final List<Node> unscored = new ArrayList<>();
+		for (final Node node : frontier) {
+			final Integer value = journal.get(node.key);
+			if (value != null) {
+				node.value = value;
+				node.scored = true;
+			} else {
+				unscored.add(node);
+			}
+		}
+		System.out.printf("%d positions, %d to score at depth %d on %d threads%n",
+				nodes.size(), unscored.size(), depth, threads);
+
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(
+				journalFile.toFile(), true))) {
+			score(unscored, depth, threads, out);
+		}
+
+		getValue(root);
+		final long[] keys = new long[nodes.size()];
+		int count = 0;
+		for (final long key : nodes.keySet()) {
+			keys[count++] = key;
+		}
+		Arrays.sort(keys);
+		final int[] values = new int[count];
+		for (int i = 0; i < count; ++i) {
+			values[i] = nodes.get(keys[i]).value;
+		}
+		try (OutputStream out = Files.newOutputStream(file)) {
+			OpeningBook.write(keys, values, count, out);
+		}
+		System.out.printf("%d positions written, start position value %d%n", count,
+				root.value);
+		System.exit(0);
+	}
+
+	/**
+	 * Adds the <tt>position</tt> and all the positions reachable from it in
+	 * <tt>plies</tt> plies to the <tt>nodes</tt>, and the ones that are to be
+	 * scored by a search to the <tt>frontier</tt>
+	 */
+	private static Node expand(final Position position, final Player player, final int plies,
+			final Map<Long, Node> nodes, final List<Node> frontier) {
+		final long key = position.getCanonicalHash(player);
+		Node node = nodes.get(key);
+		if (node != null) {
+			return node;
+		}
+		final Player opponent = Player.getOpponent(player);
+		long moves = position.getMoves(player);
+		if (moves == 0 && position.getMoves(opponent) == 0) {
+			node = new Node(key, position, player, new Node[0]);
+			node.value = (position.getDiscCount(player) - position.getDiscCount(opponent))
+					* FINAL_DISC_VALUE;
+			node.scored = true;
+		} else if (moves == 0) {
+			node = new Node(key, position, player, new Node[1]);
+			node.children[0] = expand(position, opponent, Math.max(plies - 1, 0), nodes,
+					frontier);
+		} else if (plies == 0) {
+			node = new Node(key, position, player, new Node[0]);
+			frontier.add(node);
+		} else {
+			node = new Node(key, position, player, new Node[Long.bitCount(moves)]);
+			for (int i = 0; moves != 0; ++i, moves &= moves - 1) {
+				position.makeMove(Long.numberOfTrailingZeros(moves), player);
+				node.children[i] = expand(position, opponent, plies - 1, nodes, frontier);
+				position.undoMove();
+			}
+		}
+		nodes.put(key, node);
+		return node;
+	}
+
+	/**
+	 * Searches the <tt>frontier</tt> positions in parallel, each thread with a
+	 * solver of its own, and appends their values to the <tt>journal</tt>. The
+	 * first failure of a search or of the journal is thrown and the searches
+	 * that have not started are cancelled, so that no book is written with
+	 * unscored positions. The positions scored so far stay in the journal.
+	 */
+	private static void score(final List<Node> frontier, final int depth, final int threads,
+			final DataOutputStream journal) throws InterruptedException, ExecutionException {
+		final ThreadLocal<GameSolver> solvers = ThreadLocal.withInitial(() -> {
+			final GameSolver solver = new GameSolver();
+			solver.setTimeBudget(TIME_BUDGET);
+			solver.setMaxDepth(depth);
+			return solver;
+		});
+		final AtomicInteger scored = new AtomicInteger();
+		final long start = System.nanoTime();
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		final List<Future<?>> searches = new ArrayList<>(frontier.size());
+		for (final Node node : frontier) {
+			searches.add(executor.submit(() -> {
+				node.value = solvers.get().findOptimalMove(
+						new BitBoard(node.black, node.white), node.player).getValue();
+				node.scored = true;
+				synchronized (journal) {
+					try {
+						journal.writeLong(node.key);
+						journal.writeInt(node.value);
+						journal.flush();
+					} catch (final IOException e) {
+						throw new IllegalStateException("Cannot write the journal", e);
+					}
+				}
+				final int done = scored.incrementAndGet();
+				if (done % PROGRESS_INTERVAL == 0 || done == frontier.size()) {
+					System.out.printf("%d/%d scored in %d s%n", done, frontier.size(),
+							(System.nanoTime() - start) / 1000000000L);
+				}
+			}));
+		}
+		executor.shutdown();
+		try {
+			for (final Future<?> search : searches) {
+				search.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Computes the negamax value of the <tt>node</tt> from the values of the
+	 * frontier positions
+	 */
+	private static int getValue(final Node node) {
+		if (!node.scored) {
+			int value = -Integer.MAX_VALUE;
+			for (final Node child : node.children) {
+				value = Math.max(value, -getValue(child));
+			}
+			node.value = value;
+			node.scored = true;
+		}
+		return node.value;
+	}
+
+	/**
+	 * Reads the values of the positions scored by earlier runs at the same
+	 * <tt>depth</tt>, or starts a new journal for that depth. A record cut
+	 * short by an interrupted run is removed from the journal, so that new
+	 * records are appended right after the last complete one.
+	 */
+	private static Map<Long, Integer> readJournal(final Path journalFile, final int depth)
+			throws IOException {
+		final Map<Long, Integer> result = new HashMap<>();
+		if (!Files.exists(journalFile) || Files.size(journalFile) < JOURNAL_HEADER_SIZE) {
+			try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(
+					journalFile))) {
+				out.writeInt(depth);
+			}
+			return result;
+		}
+		long length = JOURNAL_HEADER_SIZE;
+		try (InputStream in = Files.newInputStream(journalFile);
+				DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+			final int journalDepth = data.readInt();
+			if (journalDepth != depth) {
+				throw new IOException("The journal " + journalFile + " holds values of depth "
+						+ journalDepth + ", not " + depth + "; remove it to start over");
+			}
+			while (true) {
+				final long key = data.readLong();
+				result.put(key, data.readInt());
+				length += JOURNAL_RECORD_SIZE;
+			}
+		} catch (final EOFException e) {
+			// end of the journal
+		}
+		try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+			channel.truncate(length);
+		}
+		return result;
+	}
+
+	/**
+	 * A position of the book tree
+	 */
+	private static final class Node {
+
+		private final long key;
+
+		private final long black;
+
+		private final long white;
+
+		private final Player player;
+
+		private final Node[] children;
+
+		private volatile int value;
+
+		private volatile boolean scored;
+
+		private Node(final long key, final BitBoard position, final Player player,
+				final Node[] children) {
+			this.key = key;
+			black = position.getDiscs(Player.BLACK);
+			white = position.getDiscs(Player.WHITE);
+			this.player = player;
+			this.children = children;
+		}
+	}
+
+}
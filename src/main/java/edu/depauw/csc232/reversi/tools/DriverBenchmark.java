@@ -0,0 +1,101 @@
+package edu.depauw.csc232.reversi.tools;
+
+import java.util.List;
+import java.util.Random;
+
+import edu.depauw.csc232.reversi.GameSolver;
+import edu.depauw.csc232.reversi.SearchDriver;
+import edu.depauw.csc232.reversi.model.Board;
+import edu.depauw.csc232.reversi.model.Player;
+
+/**
+ * Compares the search drivers of the solver. The random positions of
+ * {@link SolverBenchmark} are searched to a fixed depth with each driver, and
+ * the number of nodes and the time needed to complete each depth are printed,
+ * summed over all the positions.
+ *
+ * Usage: <tt>DriverBenchmark [depth] [positions]</tt>
+ *
+ */
+public final class DriverBenchmark {
+
+	/**
+	 * {@value}
+	 */
+	private static final int DEFAULT_DEPTH = 9;
+
+	/**
+	 * {@value}
+	 */
+	private static final int DEFAULT_POSITION_COUNT = 8;
+
+	/**
+	 * Long enough for every search to reach the requested depth, {@value}
+	 */
+	private static final long TIME_BUDGET = 3600000L;
+
+	private DriverBenchmark() {
+		// command line tool
+	}
+
+	public static void main(final String[] args) {
+		final int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+		final int positionCount = args.length > 1 ? Integer.parseInt(args[1])
+				: DEFAULT_POSITION_COUNT;
+		final List<Board> boards = SolverBenchmark.getRandomBoards(positionCount, new Random(
+				SolverBenchmark.SEED));
+		final SearchDriver[] drivers = SearchDriver.values();
+
+		// warm up the compiler, so that the first driver is not penalized
+		search(SearchDriver.FULL_WINDOW, depth, boards);
+		final long[][][] results = new long[drivers.length][][];
+		for (int i = 0; i < drivers.length; ++i) {
+			results[i] = search(drivers[i], depth, boards);
+		}
+
+		System.out.printf("depth %d, %d positions; nodes and time (ms) to complete each depth%n",
+				depth, boards.size());
+		System.out.print("depth");
+		for (final SearchDriver driver : drivers) {
+			System.out.printf(" %24s", driver);
+		}
+		System.out.println();
+		for (int d = 1; d <= depth; ++d) {
+			System.out.printf("%5d", d);
+			for (int i = 0; i < drivers.length; ++i) {
+				System.out.printf(" %14d %9d", results[i][0][d], results[i][1][d]);
+			}
+			System.out.println();
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * Searches each of the <tt>boards</tt> from an empty transposition table
+	 * and returns the total nodes and time needed to complete each depth
+	 */
+	private static long[][] search(final SearchDriver driver, final int depth,
+			final List<Board> boards) {
+		final long[] nodes = new long[depth + 1];
+		final long[] times = new long[depth + 1];
+		final long[] boardNodes = new long[1];
+		final GameSolver solver = new GameSolver();
+		solver.setSearchDriver(driver);
+		solver.setTimeBudget(TIME_BUDGET);
+		solver.setMaxDepth(depth);
+		solver.setProgressListener((completedDepth, value, cellIndex, completedNodes,
+				elapsedTime) -> {
+			boardNodes[0] += completedNodes;
+			nodes[completedDepth] += boardNodes[0];
+			times[completedDepth] += elapsedTime;
+		});
+		for (final Board board : boards) {
+			solver.getTranspositionTable().clear();
+			solver.getEvaluationCache().clear();
+			boardNodes[0] = 0;
+			solver.findOptimalMove(board, Player.WHITE);
+		}
+		return new long[][] { nodes, times };
+	}
+
+}
@@ -0,0 +1,96 @@
+package edu.depauw.csc232.reversi.tools;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import com.sun.management.ThreadMXBean;
+
+import edu.depauw.csc232.reversi.EndgameCache;
+import edu.depauw.csc232.reversi.EndgameSolver;
+import edu.depauw.csc232.reversi.TranspositionTable;
+import edu.depauw.csc232.reversi.model.RandomGame;
+import edu.depauw.csc232.reversi.move.MoveGenerator;
+
+/**
+ * Measures the endgame solver on random positions with a fixed number of empty
+ * cells. The score, the best move, the number of nodes, the time and the
+ * memory allocated by each exact solve are printed, along with the result,
+ * the nodes and the time of a win/loss/draw solve of the same position.
+ * Given an {@link EndgameCache} file, the solves look it up and add to it, so
+ * that a second run shows how much the cache saves.
+ *
+ * Usage: <tt>EndgameBenchmark [empties] [positions] [cache]</tt>
+ *
+ */
+public final class EndgameBenchmark {
+
+	/**
+	 * {@value}
+	 */
+	private static final int DEFAULT_EMPTIES = 20;
+
+	/**
+	 * {@value}
+	 */
+	private static final int DEFAULT_POSITION_COUNT = 5;
+
+	private EndgameBenchmark() {
+		// command line tool
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final int empties = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EMPTIES;
+		final int positionCount = args.length > 1 ? Integer.parseInt(args[1])
+				: DEFAULT_POSITION_COUNT;
+		final Random random = new Random(SolverBenchmark.SEED);
+		final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		final TranspositionTable table = new TranspositionTable(TranspositionTable.DEFAULT_MEMORY);
+		final EndgameSolver solver = new EndgameSolver(table);
+		final EndgameCache cache = args.length > 2 ? EndgameCache.open(Paths.get(args[2])) : null;
+		solver.setCache(cache);
+		final long threadId = Thread.currentThread().getId();
+
+		System.out.printf("%d empties%n", empties);
+		System.out.println("position  score  move          nodes   time(ms)  allocated(bytes)"
+				+ "  wld      wld nodes  wld time(ms)");
+		long totalNodes = 0;
+		long totalTime = 0;
+		long totalWinLossDrawNodes = 0;
+		long totalWinLossDrawTime = 0;
+		for (int i = 0; i < positionCount;) {
+			final long[] discs = RandomGame.getRandomDiscs(random, empties);
+			if (Long.bitCount(~(discs[0] | discs[1])) != empties
+					|| !MoveGenerator.hasMoves(discs[0], discs[1])) {
+				continue;
+			}
+			table.clear();
+			final long winLossDrawStart = System.nanoTime();
+			final int winLossDraw = solver.solveWinLossDraw(discs[0], discs[1], Long.MAX_VALUE);
+			final long winLossDrawTime = (System.nanoTime() - winLossDrawStart) / 1000000L;
+			final long winLossDrawNodes = solver.getNodes();
+
+			table.clear();
+			final long allocated = threads.getThreadAllocatedBytes(threadId);
+			final long start = System.nanoTime();
+			final int score = solver.solve(discs[0], discs[1], Long.MAX_VALUE);
+			final long time = (System.nanoTime() - start) / 1000000L;
+			final long bytes = threads.getThreadAllocatedBytes(threadId) - allocated;
+			System.out.printf("%8d %6d %5d %14d %10d %17d %4d %14d %13d%n", ++i, score,
+					solver.getBestMove(), solver.getNodes(), time, bytes, winLossDraw,
+					winLossDrawNodes, winLossDrawTime);
+			totalNodes += solver.getNodes();
+			totalTime += time;
+			totalWinLossDrawNodes += winLossDrawNodes;
+			totalWinLossDrawTime += winLossDrawTime;
+		}
+		System.out.printf("total %29d %10d %22d %13d%n", totalNodes, totalTime,
+				totalWinLossDrawNodes, totalWinLossDrawTime);
+		if (cache != null) {
+			System.out.printf("%d positions in the endgame cache%n", cache.size());
+			cache.close();
+		}
+	}
+
+}
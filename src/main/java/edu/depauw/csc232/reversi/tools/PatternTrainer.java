@@ -0,0 +1,214 @@
+package edu.depauw.csc232.reversi.tools;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import edu.depauw.csc232.reversi.EndgameSolver;
+import edu.depauw.csc232.reversi.PatternEvaluator;
+import edu.depauw.csc232.reversi.TranspositionTable;
+import edu.depauw.csc232.reversi.model.BitBoard;
+import edu.depauw.csc232.reversi.model.Board;
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.RandomGame;
+import edu.depauw.csc232.reversi.move.FlipCalculator;
+import edu.depauw.csc232.reversi.move.MoveGenerator;
+
+/**
+ * Trains the tables of a {@link PatternEvaluator} and writes them to a file.
+ * Random games are played until {@link #EXACT_EMPTIES} cells are left, and
+ * the rest of each game is solved exactly with the {@link EndgameSolver}. The
+ * positions of the exact stage are labelled with the final disc differential
+ * of perfect play from that point. The earlier ones are labelled with the
+ * outcome of the random continuation to the exact stage followed by perfect
+ * play, i.e. the exact score of the first solved position, or the final score
+ * if the game ended before. The tables of each phase are fitted to the labels
+ * by stochastic gradient descent on the squared error.
+ *
+ * Usage: <tt>PatternTrainer &lt;file&gt; [games] [epochs]</tt>
+ *
+ */
+public final class PatternTrainer {
+
+	/**
+	 * {@value}
+	 */
+	private static final int DEFAULT_GAME_COUNT = 10000;
+
+	/**
+	 * {@value}
+	 */
+	private static final int DEFAULT_EPOCH_COUNT = 20;
+
+	/**
+	 * The number of empty cells from which on the positions are solved
+	 * exactly, {@value}
+	 */
+	private static final int EXACT_EMPTIES = 14;
+
+	/**
+	 * The step of the gradient descent for each weight of a sample, {@value}
+	 */
+	private static final float LEARNING_RATE = 0.005f;
+
+	private PatternTrainer() {
+		// command line tool
+	}
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: PatternTrainer <file> [games] [epochs]");
+			System.exit(1);
+		}
+		final int gameCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAME_COUNT;
+		final int epochCount = args.length > 2 ? Integer.parseInt(args[2])
+				: DEFAULT_EPOCH_COUNT;
+
+		final Samples samples = new Samples(gameCount * BitBoard.SIZE);
+		final Random random = new Random(SolverBenchmark.SEED);
+		final EndgameSolver solver = new EndgameSolver(new TranspositionTable(
+				TranspositionTable.DEFAULT_MEMORY));
+		final long start = System.nanoTime();
+		for (int game = 0; game < gameCount; ++game) {
+			playGame(random, solver, samples);
+		}
+		System.out.printf("%d positions from %d games in %d ms%n", samples.count, gameCount,
+				(System.nanoTime() - start) / 1000000L);
+
+		final float[][] weights = new float[PatternEvaluator.PHASE_COUNT][PatternEvaluator.TABLE_SIZE];
+		final int[] indices = new int[PatternEvaluator.INSTANCE_COUNT];
+		for (int epoch = 1; epoch <= epochCount; ++epoch) {
+			double squaredError = 0;
+			for (int i = 0; i < samples.count; ++i) {
+				final float[] phaseWeights = weights[PatternEvaluator.getPhase(Long
+						.bitCount(samples.own[i] | samples.opponent[i]))];
+				PatternEvaluator.getIndices(samples.own[i], samples.opponent[i], indices);
+				float value = phaseWeights[0];
+				for (final int index : indices) {
+					value += phaseWeights[index];
+				}
+				final float error = samples.scores[i] - value;
+				squaredError += error * error;
+				final float step = LEARNING_RATE * error;
+				phaseWeights[0] += step;
+				for (final int index : indices) {
+					phaseWeights[index] += step;
+				}
+			}
+			System.out.printf("epoch %d, error %.2f discs%n", epoch,
+					Math.sqrt(squaredError / samples.count));
+		}
+
+		try (OutputStream out = Files.newOutputStream(Paths.get(args[0]))) {
+			new PatternEvaluator(toTables(weights)).save(out);
+		}
+	}
+
+	/**
+	 * Plays a random game until {@link #EXACT_EMPTIES} cells are left, then
+	 * solves each position of the rest of the game, and adds all the positions
+	 * with their labels to the <tt>samples</tt>. Positions in which the player
+	 * to move has to pass are left out.
+	 */
+	private static void playGame(final Random random, final EndgameSolver solver,
+			final Samples samples) {
+		final int first = samples.count;
+		final Board start = new Board();
+		start.startGame();
+		long own = start.getPosition().getDiscs(Player.BLACK);
+		long opponent = start.getPosition().getDiscs(Player.WHITE);
+		// the ply of each recorded position, so that the score of perfect play
+		// from the first solved position can be given the right sign
+		final int[] plies = new int[BitBoard.SIZE];
+		int ply = 0;
+		boolean solved = false;
+		while (MoveGenerator.hasMoves(own, opponent) || MoveGenerator.hasMoves(opponent, own)) {
+			long moves = MoveGenerator.getMoves(own, opponent);
+			if (Long.bitCount(~(own | opponent)) <= EXACT_EMPTIES) {
+				final int exactScore = solver.solve(own, opponent, Long.MAX_VALUE);
+				if (!solved) {
+					setScores(samples, first, plies, ply, exactScore);
+					solved = true;
+				}
+				if (moves != 0) {
+					samples.add(own, opponent, exactScore);
+				}
+			} else if (moves != 0) {
+				plies[samples.count - first] = ply;
+				samples.add(own, opponent, 0);
+			}
+			if (moves != 0) {
+				final int cellIndex = RandomGame.getRandomMove(random, moves);
+				final long flips = FlipCalculator.getFlips(cellIndex, own, opponent);
+				own |= flips | BitBoard.bit(cellIndex);
+				opponent ^= flips;
+			}
+			final long swap = own;
+			own = opponent;
+			opponent = swap;
+			++ply;
+		}
+		if (!solved) {
+			// the game ended before the exact stage, its final score is known
+			setScores(samples, first, plies, ply, EndgameSolver.getFinalScore(own, opponent, Long
+					.bitCount(~(own | opponent))));
+		}
+	}
+
+	/**
+	 * Labels the positions of a game from the <tt>first</tt> sample on with
+	 * the <tt>score</tt> of the player to move at the <tt>ply</tt> given
+	 */
+	private static void setScores(final Samples samples, final int first, final int[] plies,
+			final int ply, final int score) {
+		for (int i = first; i < samples.count; ++i) {
+			samples.scores[i] = (byte) ((ply - plies[i - first]) % 2 == 0 ? score : -score);
+		}
+	}
+
+	/**
+	 * Rounds the weights to the units of the tables
+	 */
+	private static short[][] toTables(final float[][] weights) {
+		final short[][] tables = new short[weights.length][];
+		for (int phase = 0; phase < weights.length; ++phase) {
+			tables[phase] = new short[weights[phase].length];
+			for (int i = 0; i < weights[phase].length; ++i) {
+				tables[phase][i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE,
+						Math.round(weights[phase][i] * PatternEvaluator.DISC_VALUE)));
+			}
+		}
+		return tables;
+	}
+
+	/**
+	 * The positions of all the games with their labels, from the point of
+	 * view of the player to move
+	 */
+	private static final class Samples {
+
+		private final long[] own;
+
+		private final long[] opponent;
+
+		private final byte[] scores;
+
+		private int count;
+
+		private Samples(final int capacity) {
+			own = new long[capacity];
+			opponent = new long[capacity];
+			scores = new byte[capacity];
+		}
+
+		private void add(final long ownDiscs, final long opponentDiscs, final int score) {
+			own[count] = ownDiscs;
+			opponent[count] = opponentDiscs;
+			scores[count] = (byte) score;
+			++count;
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+package edu.depauw.csc232.reversi.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import edu.depauw.csc232.reversi.GameMove;
+import edu.depauw.csc232.reversi.GameSolver;
+import edu.depauw.csc232.reversi.SearchMode;
+import edu.depauw.csc232.reversi.model.BitBoard;
+import edu.depauw.csc232.reversi.model.Board;
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.RandomGame;
+
+/**
+ * Measures the speedup of a parallel search mode over the serial search. A
+ * fixed set of random positions is searched to a fixed depth with 1 to N
+ * threads, where N is the number of available processors unless given, and
+ * the time, the number of nodes of the solver thread and the speedup are
+ * printed for each thread count.
+ *
+ * Usage: <tt>SolverBenchmark [depth] [positions] [threads] [PARALLEL|LAZY_SMP]</tt>
+ *
+ */
+public final class SolverBenchmark {
+
+	/**
+	 * {@value}
+	 */
+	private static final int DEFAULT_DEPTH = 8;
+
+	/**
+	 * {@value}
+	 */
+	private static final int DEFAULT_POSITION_COUNT = 8;
+
+	/**
+	 * The number of random moves played from the start to reach a benchmark
+	 * position, {@value}
+	 */
+	private static final int OPENING_PLIES = 19;
+
+	/**
+	 * The number of empty cells at the start of the game, {@value}
+	 */
+	private static final int START_EMPTIES = BitBoard.SIZE - 4;
+
+	/**
+	 * {@value}
+	 */
+	static final long SEED = 232L;
+
+	/**
+	 * Long enough for every search to reach the requested depth, {@value}
+	 */
+	private static final long TIME_BUDGET = 3600000L;
+
+	private SolverBenchmark() {
+		// command line tool
+	}
+
+	public static void main(final String[] args) {
+		final int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+		final int positionCount = args.length > 1 ? Integer.parseInt(args[1])
+				: DEFAULT_POSITION_COUNT;
+		final int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime
+				.getRuntime().availableProcessors();
+		final SearchMode mode = args.length > 3 ? SearchMode.valueOf(args[3])
+				: SearchMode.PARALLEL;
+		final List<Board> boards = getRandomBoards(positionCount, new Random(SEED));
+
+		System.out.printf("%s, depth %d, %d positions, %d processors%n", mode, depth,
+				boards.size(), Runtime.getRuntime().availableProcessors());
+		// warm up the compiler, so that the first row is not penalized
+		search(createSolver(SearchMode.SERIAL, 1, depth), boards);
+		System.out.println("threads       time(ms)          nodes  speedup  values");
+		int[] serialValues = null;
+		long serialTime = 0;
+		for (int threads = 1; threads <= maxThreads; ++threads) {
+			final GameSolver solver = createSolver(threads == 1 ? SearchMode.SERIAL : mode,
+					threads, depth);
+			final long[] nodes = new long[1];
+			solver.setProgressListener((completedDepth, value, cellIndex, completedNodes,
+					elapsedTime) -> nodes[0] += completedNodes);
+
+			final long start = System.nanoTime();
+			final int[] values = search(solver, boards);
+			final long time = (System.nanoTime() - start) / 1000000L;
+
+			if (serialValues == null) {
+				serialValues = values;
+				serialTime = time;
+			}
+			System.out.printf("%7d %14d %14d %8.2f  %s%n", threads, time, nodes[0],
+					(double) serialTime / Math.max(time, 1),
+					Arrays.equals(values, serialValues) ? "same" : "DIFFERENT");
+		}
+		System.exit(0);
+	}
+
+	private static GameSolver createSolver(final SearchMode mode, final int threads,
+			final int depth) {
+		final GameSolver solver = new GameSolver();
+		solver.setSearchMode(mode);
+		solver.setParallelism(threads);
+		solver.setTimeBudget(TIME_BUDGET);
+		solver.setMaxDepth(depth);
+		return solver;
+	}
+
+	/**
+	 * Searches each of the <tt>boards</tt> from an empty transposition table
+	 * and returns the values found
+	 */
+	private static int[] search(final GameSolver solver, final List<Board> boards) {
+		final int[] values = new int[boards.size()];
+		for (int i = 0; i < boards.size(); ++i) {
+			solver.getTranspositionTable().clear();
+			solver.getEvaluationCache().clear();
+			final GameMove move = solver.findOptimalMove(boards.get(i), Player.WHITE);
+			values[i] = move.getValue();
+		}
+		return values;
+	}
+
+	/**
+	 * Plays random moves from the start position until the white player is to
+	 * move after {@link #OPENING_PLIES} plies
+	 */
+	static List<Board> getRandomBoards(final int count, final Random random) {
+		final List<Board> boards = new ArrayList<>(count);
+		while (boards.size() < count) {
+			final Board board = RandomGame.play(random, START_EMPTIES - OPENING_PLIES);
+			final Player player = board.getSideToMove();
+			if (player == Player.WHITE && board.hasNextMove(player)) {
+				boards.add(board);
+			}
+		}
+		return boards;
+	}
+
+}
@@ -0,0 +1,118 @@
+package edu.depauw.csc232.reversi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.depauw.csc232.reversi.model.RandomGame;
+import edu.depauw.csc232.reversi.model.Symmetry;
+import edu.depauw.csc232.reversi.move.MoveGenerator;
+
+/**
+ * Tests that solved positions survive reopening the cache, are found for all
+ * their symmetric images, that the cache is cut down to its maximum size, and
+ * that a file that cannot be written disables the cache.
+ */
+class EndgameCacheTest {
+
+	@Test
+	void testReopen(@TempDir Path directory) throws IOException {
+		Path file = directory.resolve("endgame.bin");
+		Random random = new Random(232L);
+		long[] own = new long[50];
+		long[] opponent = new long[own.length];
+		EndgameCache cache = EndgameCache.open(file);
+		for (int i = 0; i < own.length; i++) {
+			long[] discs = RandomGame.getRandomDiscs(random, 14 + i % 6);
+			own[i] = discs[0];
+			opponent[i] = discs[1];
+			cache.store(own[i], opponent[i], i - 25, Long.numberOfTrailingZeros(MoveGenerator
+					.getMoves(own[i], opponent[i])));
+		}
+		int size = cache.size();
+		cache.close();
+
+		cache = EndgameCache.open(file);
+		assertEquals(size, cache.size());
+		// the appended entries are merged into the next generation
+		assertEquals(directory.resolve("endgame.bin.1"), cache.getFile());
+		assertEquals(12 + 12L * size, Files.size(cache.getFile()));
+		assertFalse(Files.exists(directory.resolve("endgame.bin.0")));
+		for (int i = 0; i < own.length; i++) {
+			int move = Long.numberOfTrailingZeros(MoveGenerator.getMoves(own[i], opponent[i]));
+			for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+				int entry = cache.probe(Symmetry.transform(own[i], symmetry), Symmetry.transform(
+						opponent[i], symmetry));
+				assertNotEquals(EndgameCache.MISS, entry);
+				assertEquals(Symmetry.transformCell(move, symmetry), EndgameCache.getMove(entry));
+			}
+		}
+		assertEquals(EndgameCache.MISS, cache.probe(opponent[0], own[0]));
+		cache.close();
+	}
+
+	@Test
+	void testMaxEntries(@TempDir Path directory) throws IOException {
+		Path file = directory.resolve("endgame.bin");
+		Random random = new Random(232L);
+		long[] deep = RandomGame.getRandomDiscs(random, 19);
+		try (EndgameCache cache = EndgameCache.open(file, 8, 10)) {
+			cache.store(deep[0], deep[1], 0, GameMove.NO_MOVE);
+			for (int i = 0; i < 40; i++) {
+				long[] discs = RandomGame.getRandomDiscs(random, 8 + i % 5);
+				cache.store(discs[0], discs[1], 0, GameMove.NO_MOVE);
+			}
+			// the cache is only cut down when it is closed
+			assertTrue(cache.size() > 8);
+		}
+		try (EndgameCache cache = EndgameCache.open(file, 8, 10)) {
+			assertEquals(6, cache.size());
+			// the positions with the most empty cells are kept
+			int entry = cache.probe(deep[0], deep[1]);
+			assertNotEquals(EndgameCache.MISS, entry);
+			assertEquals(19, EndgameCache.getEmpties(entry));
+		}
+	}
+
+	@Test
+	void testWriteFailure(@TempDir Path directory) throws IOException {
+		Random random = new Random(232L);
+		long[] discs = RandomGame.getRandomDiscs(random, 14);
+		EndgameCache cache = EndgameCache.open(directory.resolve("endgame.bin"));
+		cache.close();
+		// the file is closed, so the entry cannot be appended
+		cache.store(discs[0], discs[1], 0, GameMove.NO_MOVE);
+		assertFalse(cache.isEnabled());
+		assertEquals(EndgameCache.MISS, cache.probe(discs[0], discs[1]));
+	}
+
+	@Test
+	void testSolverUsesCache(@TempDir Path directory) throws IOException {
+		Random random = new Random(232L);
+		long[] discs = RandomGame.getRandomDiscs(random, 14);
+		try (EndgameCache cache = EndgameCache.open(directory.resolve("endgame.bin"))) {
+			EndgameSolver solver = new EndgameSolver(new TranspositionTable(1 << 20));
+			int expected = solver.solve(discs[0], discs[1], Long.MAX_VALUE);
+			int move = solver.getBestMove();
+			solver.setCache(cache);
+			assertEquals(expected, solver.solve(discs[0], discs[1], Long.MAX_VALUE));
+			assertTrue(cache.size() > 0);
+
+			// the image of the position is answered by the cache alone
+			int symmetry = Symmetry.TRANSPOSE | Symmetry.MIRROR_HORIZONTAL;
+			EndgameSolver other = new EndgameSolver(new TranspositionTable(1 << 20));
+			other.setCache(cache);
+			assertEquals(expected, other.solve(Symmetry.transform(discs[0], symmetry),
+					Symmetry.transform(discs[1], symmetry), Long.MAX_VALUE));
+			assertEquals(1, other.getNodes());
+			assertEquals(Symmetry.transformCell(move, symmetry), other.getBestMove());
+		}
+	}
+
+}
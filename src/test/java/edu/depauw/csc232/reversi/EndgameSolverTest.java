@@ -0,0 +1,71 @@
+package edu.depauw.csc232.reversi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.depauw.csc232.reversi.model.BitBoard;
+import edu.depauw.csc232.reversi.model.RandomGame;
+import edu.depauw.csc232.reversi.move.FlipCalculator;
+import edu.depauw.csc232.reversi.move.MoveGenerator;
+
+/**
+ * Tests the endgame solver against a plain negamax search to the end of the
+ * game.
+ */
+class EndgameSolverTest {
+
+	@Test
+	void testFinalScores() {
+		EndgameSolver solver = new EndgameSolver(new TranspositionTable(1 << 20));
+		Random random = new Random(232);
+		int solved = 0;
+		while (solved < 30) {
+			long[] discs = RandomGame.getRandomDiscs(random, 5 + solved % 7);
+			long own = discs[0];
+			long opponent = discs[1];
+			if (!MoveGenerator.hasMoves(own, opponent)) {
+				continue;
+			}
+			int expected = negamax(own, opponent);
+			assertEquals(expected, solver.solve(own, opponent, Long.MAX_VALUE));
+			assertFalse(solver.isAborted());
+
+			// the best move leads to the same score
+			int move = solver.getBestMove();
+			long flips = FlipCalculator.getFlips(move, own, opponent);
+			assertNotEquals(0L, flips);
+			assertEquals(expected, -negamax(opponent ^ flips, own | flips | BitBoard.bit(move)));
+
+			// a null window tells on which side of it the score is
+			assertTrue(solver.solve(own, opponent, expected - 1, expected, Long.MAX_VALUE) >= expected);
+			assertTrue(solver.solve(own, opponent, expected, expected + 1, Long.MAX_VALUE) <= expected);
+			assertEquals(Integer.signum(expected),
+					solver.solveWinLossDraw(own, opponent, Long.MAX_VALUE));
+			++solved;
+		}
+	}
+
+	private int negamax(long own, long opponent) {
+		long moves = MoveGenerator.getMoves(own, opponent);
+		if (moves == 0) {
+			if (MoveGenerator.hasMoves(opponent, own)) {
+				return -negamax(opponent, own);
+			}
+			int difference = Long.bitCount(own) - Long.bitCount(opponent);
+			int empties = Long.bitCount(~(own | opponent));
+			return difference > 0 ? difference + empties : difference < 0 ? difference - empties
+					: 0;
+		}
+		int best = -BitBoard.SIZE;
+		for (; moves != 0; moves &= moves - 1) {
+			int cell = Long.numberOfTrailingZeros(moves);
+			long flips = FlipCalculator.getFlips(cell, own, opponent);
+			best = Math.max(best, -negamax(opponent ^ flips, own | flips | BitBoard.bit(cell)));
+		}
+		return best;
+	}
+
+}
@@ -0,0 +1,59 @@
+package edu.depauw.csc232.reversi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.depauw.csc232.reversi.model.Board;
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
+
+/**
+ * Tests that the evaluation cache gives the values of the evaluator it wraps,
+ * and that a hit does not call the evaluator.
+ */
+class EvaluationCacheTest {
+
+	private int evaluations;
+
+	private final BoardEvaluator counter = (board, player) -> {
+		evaluations++;
+		return board.getDiscCount(Player.BLACK) * 100 - board.getDiscCount(Player.WHITE)
+				+ player.getSign();
+	};
+
+	@Test
+	void testHits() {
+		EvaluationCache cache = new EvaluationCache(counter, 1 << 10);
+		assertEquals(128, cache.size());
+		Board board = new Board();
+		board.startGame();
+		Position position = board.getPosition();
+
+		int value = cache.getValue(position, Player.BLACK);
+		assertEquals(counter.getValue(position, Player.BLACK), value);
+		evaluations = 0;
+		assertEquals(value, cache.getValue(position, Player.BLACK));
+		assertEquals(0, evaluations);
+		assertEquals(2, cache.getProbes());
+		assertEquals(1, cache.getHits());
+
+		// the side to move is part of the key
+		assertEquals(value - 2, cache.getValue(position, Player.WHITE));
+		assertEquals(1, evaluations);
+
+		position.makeMove(19, Player.BLACK);
+		assertEquals(counter.getValue(position, Player.WHITE), cache.getValue(position,
+				Player.WHITE));
+		position.undoMove();
+		evaluations = 0;
+		assertEquals(value, cache.getValue(position, Player.BLACK));
+		assertEquals(0, evaluations);
+
+		cache.clear();
+		assertEquals(0, cache.getProbes());
+		assertEquals(value, cache.getValue(position, Player.BLACK));
+		assertEquals(1, evaluations);
+	}
+
+}
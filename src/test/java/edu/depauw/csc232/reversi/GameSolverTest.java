@@ -0,0 +1,139 @@
+package edu.depauw.csc232.reversi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import edu.depauw.csc232.reversi.model.Board;
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
+import edu.depauw.csc232.reversi.model.RandomGame;
+
+/**
+ * Tests the principal variation search of the solver against a plain negamax
+ * search without pruning.
+ */
+class GameSolverTest {
+
+	private static final int DEPTH = 4;
+
+	private final BoardEvaluator evaluator = new HeuristicEvaluator();
+
+	@Test
+	void testPlaysBothColors() {
+		Board board = new Board();
+		board.startGame();
+		GameSolver solver = createSolver();
+
+		GameMove move = solver.findOptimalMove(board, Player.BLACK);
+		assertTrue(board.isMovePermitted(move.getCellIndex(), Player.BLACK));
+		board.takeCell(move.getCellIndex(), Player.BLACK);
+
+		move = solver.findOptimalMove(board, Player.WHITE);
+		assertTrue(board.isMovePermitted(move.getCellIndex(), Player.WHITE));
+	}
+
+	@Test
+	void testMatchesNegamax() {
+		Random random = new Random(232);
+		for (int game = 0; game < 10; ++game) {
+			Board board = RandomGame.play(random, 48 - game);
+			Player player = board.getSideToMove();
+			if (!board.hasNextMove(player)) {
+				continue;
+			}
+			int expected = negamax(board.getPosition(), player, DEPTH);
+			GameMove move = createSolver().findOptimalMove(board, player);
+			assertEquals(expected, move.getValue());
+
+			// the split root shares its bounds without changing the result
+			GameSolver parallel = createSolver();
+			parallel.setSearchMode(SearchMode.PARALLEL);
+			parallel.setParallelism(3);
+			assertEquals(expected, parallel.findOptimalMove(board, player).getValue());
+		}
+	}
+
+	@Test
+	void testEndgameFallbackKeepsBudget() {
+		Board board = RandomGame.play(new Random(232), 30);
+		Player player = board.getSideToMove();
+		// far too many empty cells to be solved within the budget
+		GameSolver solver = new GameSolver();
+		solver.setTimeBudget(500);
+		solver.setEndgameEmpties(30);
+		List<Integer> depths = new CopyOnWriteArrayList<>();
+		solver.setProgressListener(
+				(depth, value, cellIndex, nodes, elapsedTime) -> depths.add(depth));
+		GameMove move = solver.findOptimalMove(board, player);
+		assertTrue(board.isMovePermitted(move.getCellIndex(), player));
+		// the budget is spent, so the fallback stops after its first iteration
+		assertEquals(List.of(1), depths);
+	}
+
+	@Test
+	void testPondering() throws Exception {
+		GameSolver solver = createSolver();
+		Board board = new Board();
+		board.startGame();
+		board.takeCell(37, Player.BLACK);
+		solver.findOptimalMove(board, Player.WHITE);
+
+		// pondered as deep as the last search went, the reply needs no search
+		board.takeCell(29, Player.WHITE);
+		solver.startPondering(board, Player.BLACK);
+		board.takeCell(20, Player.BLACK);
+		// the listener runs on the solver's thread, the test checks the flag
+		AtomicBoolean searched = new AtomicBoolean();
+		solver.setProgressListener(
+				(depth, value, cellIndex, nodes, elapsedTime) -> searched.set(true));
+		CompletableFuture<Integer> reply = new CompletableFuture<>();
+		solver.getOptimalMove(board, Player.WHITE, cells -> reply.complete(cells.size()));
+		assertTrue(reply.get(10, TimeUnit.SECONDS) > 1);
+		assertFalse(searched.get());
+		solver.setProgressListener(null);
+
+		// pondering without a depth limit stops as soon as it is asked to
+		solver.setMaxDepth(GameSolver.MAX_SEARCH_DEPTH);
+		solver.setTimeBudget(100);
+		solver.startPondering(board, Player.WHITE);
+		Thread.sleep(200);
+		solver.stopPondering();
+		CompletableFuture<Integer> move = new CompletableFuture<>();
+		solver.getOptimalMove(board, Player.WHITE, cells -> move.complete(cells.size()));
+		assertTrue(move.get(5, TimeUnit.SECONDS) > 1);
+	}
+
+	private GameSolver createSolver() {
+		GameSolver solver = new GameSolver();
+		solver.setMaxDepth(DEPTH);
+		solver.setTimeBudget(60000);
+		return solver;
+	}
+
+	private int negamax(Position position, Player player, int depth) {
+		Player opponent = Player.getOpponent(player);
+		long moves = position.getMoves(player);
+		if (depth == 0 || (moves == 0 && position.getMoves(opponent) == 0)) {
+			return player.getSign() * evaluator.getValue(position, player);
+		}
+		if (moves == 0) {
+			return -negamax(position, opponent, depth - 1);
+		}
+		int best = -Integer.MAX_VALUE;
+		for (; moves != 0; moves &= moves - 1) {
+			position.makeMove(Long.numberOfTrailingZeros(moves), player);
+			best = Math.max(best, -negamax(position, opponent, depth - 1));
+			position.undoMove();
+		}
+		return best;
+	}
+
+}
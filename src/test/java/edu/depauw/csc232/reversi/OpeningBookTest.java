@@ -0,0 +1,116 @@
+package edu.depauw.csc232.reversi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.depauw.csc232.reversi.model.Board;
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
+import edu.depauw.csc232.reversi.model.Symmetry;
+
+/**
+ * Tests lookups in a mapped opening book, and that the solver plays the book
+ * move without searching.
+ */
+class OpeningBookTest {
+
+	private OpeningBook map(Path directory, long[] keys, int[] values) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		OpeningBook.write(keys, values, keys.length, out);
+		Path file = directory.resolve("book.bin");
+		Files.write(file, out.toByteArray());
+		return OpeningBook.map(file);
+	}
+
+	@Test
+	void testProbe(@TempDir Path directory) throws IOException {
+		Random random = new Random(232L);
+		long[] keys = new long[1000];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = random.nextLong();
+		}
+		Arrays.sort(keys);
+		int[] values = new int[keys.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (int) (keys[i] >>> 40);
+		}
+		OpeningBook book = map(directory, keys, values);
+		assertEquals(keys.length, book.size());
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(values[i], book.probe(keys[i]));
+			assertEquals(OpeningBook.MISS, book.probe(keys[i] + 1));
+		}
+	}
+
+	@Test
+	void testUnsortedKeys() {
+		assertThrows(IllegalArgumentException.class, () -> OpeningBook.write(new long[] { 2, 1 },
+				new int[2], 2, new ByteArrayOutputStream()));
+	}
+
+	@Test
+	void testBookMove(@TempDir Path directory) throws IOException {
+		Board board = new Board();
+		board.startGame();
+		board.takeCell(37, Player.BLACK);
+		Position position = board.getPosition();
+		// the position after f5 and the value of its children for black
+		long moves = position.getMoves(Player.WHITE);
+		int best = Long.numberOfTrailingZeros(Long.highestOneBit(moves));
+		long[] keys = new long[Long.bitCount(moves) + 1];
+		int[] values = new int[keys.length];
+		keys[0] = position.getCanonicalHash(Player.WHITE);
+		int i = 1;
+		for (long m = moves; m != 0; m &= m - 1) {
+			int cell = Long.numberOfTrailingZeros(m);
+			position.makeMove(cell, Player.WHITE);
+			keys[i] = position.getCanonicalHash(Player.BLACK);
+			values[i++] = cell == best ? -5 : 3;
+			position.undoMove();
+		}
+		long[] sorted = keys.clone();
+		Arrays.sort(sorted);
+		int[] sortedValues = new int[keys.length];
+		for (int j = 0; j < keys.length; j++) {
+			sortedValues[Arrays.binarySearch(sorted, keys[j])] = values[j];
+		}
+		OpeningBook book = map(directory, sorted, sortedValues);
+
+		GameSolver solver = new GameSolver();
+		solver.setOpeningBook(book);
+		solver.setProgressListener((depth, value, cellIndex, nodes, elapsedTime) -> fail());
+		GameMove move = solver.findOptimalMove(board, Player.WHITE);
+		assertEquals(best, move.getCellIndex());
+		assertEquals(5, move.getValue());
+
+		// the same position seen through a symmetry is answered with the image
+		// of the book move
+		Board image = new Board();
+		image.startGame();
+		image.takeCell(19, Player.BLACK);
+		long black = position.getDiscs(Player.BLACK);
+		int symmetry = 0;
+		while (Symmetry.transform(black, symmetry) != image.getPosition().getDiscs(
+				Player.BLACK)) {
+			symmetry++;
+		}
+		move = solver.findOptimalMove(image, Player.WHITE);
+		assertEquals(Symmetry.transformCell(best, symmetry), move.getCellIndex());
+
+		// positions out of the book are searched
+		board.takeCell(best, Player.WHITE);
+		solver.setProgressListener(null);
+		assertNotEquals(GameMove.NO_MOVE, solver.findOptimalMove(board, Player.BLACK)
+				.getCellIndex());
+	}
+
+}
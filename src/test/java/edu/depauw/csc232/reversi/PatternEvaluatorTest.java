@@ -0,0 +1,149 @@
+package edu.depauw.csc232.reversi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.depauw.csc232.reversi.model.BitBoard;
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.Position;
+
+/**
+ * Checks that every pattern instance reads the cells it should, by finding
+ * the cells of each instance one disc at a time, and that the tables survive
+ * a round trip through a stream and through a mapped file.
+ */
+class PatternEvaluatorTest {
+
+	private static final int[] INSTANCE_SIZES = { 10, 10, 10, 10, 9, 9, 9, 9, 10, 10, 10, 10, 10,
+			10, 10, 10, 8, 8, 7, 7, 7, 7, 6, 6, 6, 6, 5, 5, 5, 5, 4, 4, 4, 4 };
+
+	private int[] getIndices(long own, long opponent) {
+		int[] indices = new int[PatternEvaluator.INSTANCE_COUNT];
+		PatternEvaluator.getIndices(own, opponent, indices);
+		return indices;
+	}
+
+	/**
+	 * Returns the cells read by each instance
+	 */
+	private long[] getCells() {
+		int[] empty = getIndices(0L, 0L);
+		long[] cells = new long[PatternEvaluator.INSTANCE_COUNT];
+		for (int cell = 0; cell < BitBoard.SIZE; cell++) {
+			int[] indices = getIndices(1L << cell, 0L);
+			for (int i = 0; i < cells.length; i++) {
+				if (indices[i] != empty[i]) {
+					cells[i] |= 1L << cell;
+				}
+			}
+		}
+		return cells;
+	}
+
+	private long getUnion(long[] cells, int from, int to) {
+		long result = 0L;
+		for (int i = from; i < to; i++) {
+			result |= cells[i];
+		}
+		return result;
+	}
+
+	@Test
+	void testInstanceCells() {
+		long[] cells = getCells();
+		Set<Long> distinct = new HashSet<>();
+		for (int i = 0; i < cells.length; i++) {
+			assertEquals(INSTANCE_SIZES[i], Long.bitCount(cells[i]));
+			assertTrue(distinct.add(cells[i]));
+		}
+		// edges with the X-squares
+		assertEquals(0xff818181818181ffL | 0x0042000000004200L, getUnion(cells, 0, 4));
+		// 3x3 corners
+		assertEquals(0xe7e7e70000e7e7e7L, getUnion(cells, 4, 8));
+		// 2x5 corners
+		assertEquals(0xffffc3c3c3c3ffffL, getUnion(cells, 8, 16));
+		// both main diagonals
+		assertEquals(0x8142241818244281L, getUnion(cells, 16, 18));
+	}
+
+	@Test
+	void testIndicesAreBase3() {
+		int[] empty = getIndices(0L, 0L);
+		long[] cells = getCells();
+		Random random = new Random(232L);
+		for (int n = 0; n < 1000; n++) {
+			long own = random.nextLong() & random.nextLong();
+			long opponent = random.nextLong() & ~own;
+			int[] indices = getIndices(own, opponent);
+			for (int i = 0; i < indices.length; i++) {
+				int expected = empty[i];
+				for (long c = cells[i]; c != 0; c &= c - 1) {
+					int cell = Long.numberOfTrailingZeros(c);
+					int digit = getIndices(1L << cell, 0L)[i] - empty[i];
+					if ((own & (1L << cell)) != 0) {
+						expected += digit;
+					} else if ((opponent & (1L << cell)) != 0) {
+						expected += 2 * digit;
+					}
+				}
+				assertEquals(expected, indices[i]);
+			}
+		}
+	}
+
+	@Test
+	void testSaveAndLoad(@TempDir Path directory) throws IOException {
+		Random random = new Random(232L);
+		short[][] weights = new short[PatternEvaluator.PHASE_COUNT][PatternEvaluator.TABLE_SIZE];
+		for (short[] phaseWeights : weights) {
+			for (int i = 0; i < phaseWeights.length; i++) {
+				phaseWeights[i] = (short) random.nextInt(1 << 16);
+			}
+		}
+		PatternEvaluator evaluator = new PatternEvaluator(weights);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		evaluator.save(out);
+		PatternEvaluator loaded = PatternEvaluator.load(new ByteArrayInputStream(out
+				.toByteArray()));
+		Path file = directory.resolve("patterns.bin");
+		Files.write(file, out.toByteArray());
+		PatternEvaluator mapped = PatternEvaluator.map(file);
+
+		for (int n = 0; n < 1000; n++) {
+			long black = random.nextLong() & random.nextLong();
+			long white = random.nextLong() & ~black;
+			Position position = new Position(new BitBoard(black, white));
+			for (Player player : new Player[] { Player.BLACK, Player.WHITE }) {
+				assertEquals(evaluator.getValue(position, player), loaded.getValue(position,
+						player));
+				assertEquals(evaluator.getValue(position, player), mapped.getValue(position,
+						player));
+			}
+		}
+	}
+
+	@Test
+	void testValueIsAbsolute() {
+		short[][] weights = new short[PatternEvaluator.PHASE_COUNT][PatternEvaluator.TABLE_SIZE];
+		for (short[] phaseWeights : weights) {
+			// a constant advantage for the player to move
+			phaseWeights[0] = 10;
+		}
+		PatternEvaluator evaluator = new PatternEvaluator(weights);
+		Position position = new Position(new BitBoard(0x0000000810000000L, 0x0000001008000000L));
+		assertEquals(10, evaluator.getValue(position, Player.BLACK));
+		assertEquals(-10, evaluator.getValue(position, Player.WHITE));
+	}
+
+}
@@ -0,0 +1,60 @@
+package edu.depauw.csc232.reversi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests storing, probing and the two-tier replacement of the transposition
+ * table.
+ */
+class TranspositionTableTest {
+
+	@Test
+	void testStoreAndProbe() {
+		TranspositionTable table = new TranspositionTable(1 << 10);
+		assertEquals(64, table.size());
+		assertEquals(TranspositionTable.MISS, table.probe(42L));
+
+		table.store(42L, 3, TranspositionTable.BOUND_LOWER, -1234, 63);
+		long entry = table.probe(42L);
+		assertNotEquals(TranspositionTable.MISS, entry);
+		assertEquals(3, TranspositionTable.getDepth(entry));
+		assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.getBound(entry));
+		assertEquals(-1234, TranspositionTable.getScore(entry));
+		assertEquals(63, TranspositionTable.getMove(entry));
+
+		table.store(42L, 1, TranspositionTable.BOUND_EXACT, 7, GameMove.NO_MOVE);
+		entry = table.probe(42L);
+		assertEquals(GameMove.NO_MOVE, TranspositionTable.getMove(entry));
+		assertEquals(3, table.getProbes());
+		assertEquals(2, table.getHits());
+		assertEquals(2, table.getStores());
+	}
+
+	@Test
+	void testReplacement() {
+		TranspositionTable table = new TranspositionTable(1 << 10);
+		// all three keys fall into the same bucket
+		long deep = 1L;
+		long shallow = 1L + (1L << 40);
+		long other = 1L + (2L << 40);
+
+		table.store(deep, 5, TranspositionTable.BOUND_EXACT, 1, 0);
+		table.store(shallow, 2, TranspositionTable.BOUND_EXACT, 2, 0);
+		table.store(other, 1, TranspositionTable.BOUND_EXACT, 3, 0);
+
+		// the deep entry survives, the always-replace slot holds the last one
+		assertNotEquals(TranspositionTable.MISS, table.probe(deep));
+		assertEquals(TranspositionTable.MISS, table.probe(shallow));
+		assertNotEquals(TranspositionTable.MISS, table.probe(other));
+		assertEquals(1, table.getCollisions());
+
+		// entries of an earlier search no longer block the deep slot
+		table.newSearch();
+		table.store(shallow, 2, TranspositionTable.BOUND_EXACT, 2, 0);
+		assertEquals(TranspositionTable.MISS, table.probe(deep));
+		assertNotEquals(TranspositionTable.MISS, table.probe(shallow));
+	}
+
+}
@@ -0,0 +1,60 @@
+package edu.depauw.csc232.reversi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that mapped weight files give back the weights written, and that files
+ * of another format, version or size are rejected.
+ */
+class WeightFileTest {
+
+	private byte[] write(short[] weights) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		WeightFile.write(ShortBuffer.wrap(weights), out);
+		return out.toByteArray();
+	}
+
+	@Test
+	void testMap(@TempDir Path directory) throws IOException {
+		short[] weights = { 1, -2, 3, Short.MAX_VALUE, Short.MIN_VALUE };
+		Path file = directory.resolve("weights.bin");
+		Files.write(file, write(weights));
+
+		ShortBuffer mapped = WeightFile.map(file, weights.length);
+		assertTrue(mapped.isDirect());
+		assertTrue(mapped.isReadOnly());
+		assertEquals(weights.length, mapped.limit());
+		for (int i = 0; i < weights.length; i++) {
+			assertEquals(weights[i], mapped.get(i));
+		}
+	}
+
+	@Test
+	void testRejectedFiles(@TempDir Path directory) throws IOException {
+		short[] weights = { 1, 2, 3 };
+		Path file = directory.resolve("weights.bin");
+		Files.write(file, write(weights));
+		assertThrows(IOException.class, () -> WeightFile.map(file, weights.length + 1));
+
+		byte[] bytes = write(weights);
+		ByteBuffer.wrap(bytes).putInt(4, WeightFile.VERSION + 1);
+		Files.write(file, bytes);
+		assertThrows(IOException.class, () -> WeightFile.map(file, weights.length));
+
+		bytes = write(weights);
+		ByteBuffer.wrap(bytes).putInt(0, 0);
+		Files.write(file, bytes);
+		assertThrows(IOException.class, () -> WeightFile.map(file, weights.length));
+	}
+
+}
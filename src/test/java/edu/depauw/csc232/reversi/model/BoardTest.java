@@ -148,4 +148,41 @@ class BoardTest {
 		}
 	}
 
+	@Test
+	void testHash() {
+		Board board = new Board();
+		board.startGame();
+		Board other = board.clone();
+		assertEquals(board, other);
+		assertEquals(board.getHash(), other.getHash());
+		assertEquals(Player.BLACK, board.getSideToMove());
+
+		board.takeCell(computeIndex(3, 2), Player.BLACK);
+		assertNotEquals(board.getHash(), other.getHash());
+
+		// applying the same change cell by cell leads to the same hash
+		other.takeCells(board.getDifference(other));
+		assertEquals(board, other);
+		assertEquals(board.getHash(), other.getHash());
+		assertEquals(Player.WHITE, other.getSideToMove());
+		assertEquals(board.getPosition().getHash(Player.WHITE), board.getHash());
+	}
+
+	@Test
+	void testGetNextBoards() {
+		Board board = new Board();
+		board.startGame();
+		Collection<Board> children = board.getNextBoards(Player.BLACK);
+		assertEquals(4, children.size());
+		for (Cell cell : board.getNextMoves(Player.BLACK)) {
+			Board child = board.clone();
+			child.takeCell(cell.getIndex(), Player.BLACK);
+			assertTrue(children.contains(child));
+		}
+		for (Board child : children) {
+			assertEquals(Player.WHITE, child.getSideToMove());
+			assertEquals(child.getPosition().getHash(Player.WHITE), child.getHash());
+		}
+	}
+
 }
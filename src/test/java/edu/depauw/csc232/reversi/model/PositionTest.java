@@ -0,0 +1,97 @@
+package edu.depauw.csc232.reversi.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that moves made on a Position match the ones taken on a Board, and that
+ * undoing them restores the earlier positions exactly.
+ */
+class PositionTest {
+
+	private long computeHash(Position position, Player sideToMove) {
+		return Zobrist.hash(position.getDiscs(Player.BLACK), position.getDiscs(Player.WHITE),
+				sideToMove);
+	}
+
+	private int computeLocationValue(Position position) {
+		int result = 0;
+		for (int i = 0; i < position.size(); i++) {
+			result += position.getOwner(i).getSign() * LocationValues.getValue(i);
+		}
+		return result;
+	}
+
+	@Test
+	void testMakeMove() {
+		Board board = new Board();
+		board.startGame();
+		Position position = board.getPosition();
+
+		position.makeMove(44, Player.BLACK);
+		board.takeCell(44, Player.BLACK);
+
+		for (int i = 0; i < board.size(); i++) {
+			assertEquals(board.get(i).getOwner(), position.getOwner(i));
+		}
+		assertEquals(1, position.getMoveCount());
+	}
+
+	@Test
+	void testUndoMove() {
+		Random random = new Random(232);
+		for (int game = 0; game < 100; game++) {
+			Board board = new Board();
+			board.startGame();
+			Position position = board.getPosition();
+			long[] black = new long[BitBoard.SIZE];
+			long[] white = new long[BitBoard.SIZE];
+			Player player = Player.BLACK;
+			while (true) {
+				long moves = position.getMoves(player);
+				if (moves == 0) {
+					player = Player.getOpponent(player);
+					moves = position.getMoves(player);
+					if (moves == 0) {
+						break;
+					}
+				}
+				black[position.getMoveCount()] = position.getDiscs(Player.BLACK);
+				white[position.getMoveCount()] = position.getDiscs(Player.WHITE);
+				position.makeMove(RandomGame.getRandomMove(random, moves), player);
+				player = Player.getOpponent(player);
+				assertEquals(computeHash(position, player), position.getHash(player));
+				assertEquals(computeLocationValue(position), position.getLocationValue());
+			}
+			while (position.getMoveCount() > 0) {
+				position.undoMove();
+				assertEquals(black[position.getMoveCount()], position.getDiscs(Player.BLACK));
+				assertEquals(white[position.getMoveCount()], position.getDiscs(Player.WHITE));
+				assertEquals(computeHash(position, player), position.getHash(player));
+				assertEquals(computeLocationValue(position), position.getLocationValue());
+			}
+		}
+	}
+
+	@Test
+	void testTakeAndSet() {
+		Random random = new Random(232);
+		Board board = new Board();
+		board.startGame();
+		Position position = board.getPosition();
+		Player player = Player.BLACK;
+		while (position.getMoves(player) != 0) {
+			position.take(RandomGame.getRandomMove(random, position.getMoves(player)), player);
+			assertEquals(computeLocationValue(position), position.getLocationValue());
+			// overwrite a random cell with a random owner
+			Player owner = Player.values()[random.nextInt(Player.values().length)];
+			position.set(random.nextInt(BitBoard.SIZE), owner);
+			assertEquals(computeLocationValue(position), position.getLocationValue());
+			player = Player.getOpponent(player);
+		}
+	}
+
+}
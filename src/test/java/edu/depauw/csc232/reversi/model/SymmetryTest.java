@@ -0,0 +1,74 @@
+package edu.depauw.csc232.reversi.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the bitboard symmetries against the same transforms applied one cell
+ * at a time, and that all the images of a position share its canonical form.
+ */
+class SymmetryTest {
+
+	private int transformByCoordinates(int cellIndex, int symmetry) {
+		int x = cellIndex % 8;
+		int y = cellIndex / 8;
+		if ((symmetry & Symmetry.TRANSPOSE) != 0) {
+			int swap = x;
+			x = y;
+			y = swap;
+		}
+		if ((symmetry & Symmetry.MIRROR_HORIZONTAL) != 0) {
+			x = 7 - x;
+		}
+		if ((symmetry & Symmetry.FLIP_VERTICAL) != 0) {
+			y = 7 - y;
+		}
+		return y * 8 + x;
+	}
+
+	@Test
+	void testTransformCell() {
+		for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+			for (int cell = 0; cell < BitBoard.SIZE; cell++) {
+				int image = Symmetry.transformCell(cell, symmetry);
+				assertEquals(transformByCoordinates(cell, symmetry), image);
+				assertEquals(cell, Symmetry.transformCell(image, Symmetry.inverse(symmetry)));
+			}
+		}
+	}
+
+	@Test
+	void testSymmetriesAreDistinct() {
+		Set<Long> images = new HashSet<>();
+		// a1 and b1 only, so that no two symmetries give the same image
+		for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+			assertTrue(images.add(Symmetry.transform(0x3L, symmetry)));
+		}
+	}
+
+	@Test
+	void testCanonicalForm() {
+		Random random = new Random(232L);
+		for (int n = 0; n < 1000; n++) {
+			long black = random.nextLong() & random.nextLong();
+			long white = random.nextLong() & ~black;
+			long hash = Symmetry.getCanonicalHash(black, white, Player.WHITE);
+			for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+				long imageBlack = Symmetry.transform(black, symmetry);
+				long imageWhite = Symmetry.transform(white, symmetry);
+				assertEquals(hash, Symmetry.getCanonicalHash(imageBlack, imageWhite,
+						Player.WHITE));
+				int canonical = Symmetry.getCanonicalSymmetry(imageBlack, imageWhite);
+				assertEquals(hash, Zobrist.hash(Symmetry.transform(imageBlack, canonical),
+						Symmetry.transform(imageWhite, canonical), Player.WHITE));
+			}
+			assertNotEquals(hash, Symmetry.getCanonicalHash(black, white, Player.BLACK));
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+package edu.depauw.csc232.reversi.move;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.depauw.csc232.reversi.Game;
+
+/**
+ * Checks the ray-table flip computation against a walk along each direction,
+ * one cell at a time, on random boards.
+ */
+class FlipCalculatorTest {
+
+	private static final int[] DX = { -1, 0, 1, -1, 1, -1, 0, 1 };
+	private static final int[] DY = { -1, -1, -1, 0, 0, 1, 1, 1 };
+
+	private long getFlipsByWalking(int cellIndex, long own, long opponent) {
+		long result = 0L;
+		int x = cellIndex % Game.BOARD_COLUMN_COUNT;
+		int y = cellIndex / Game.BOARD_COLUMN_COUNT;
+		for (int d = 0; d < DX.length; d++) {
+			long line = 0L;
+			int cx = x + DX[d];
+			int cy = y + DY[d];
+			while (cx >= 0 && cx < 8 && cy >= 0 && cy < 8) {
+				long bit = 1L << (cy * 8 + cx);
+				if ((opponent & bit) != 0) {
+					line |= bit;
+				} else {
+					if ((own & bit) != 0) {
+						result |= line;
+					}
+					break;
+				}
+				cx += DX[d];
+				cy += DY[d];
+			}
+		}
+		return result;
+	}
+
+	@Test
+	void testStartPosition() {
+		long black = (1L << 28) | (1L << 35);
+		long white = (1L << 27) | (1L << 36);
+		assertEquals(1L << 27, FlipCalculator.getFlips(19, black, white));
+		assertEquals(1L << 36, FlipCalculator.getFlips(44, black, white));
+		assertEquals(0L, FlipCalculator.getFlips(20, black, white));
+	}
+
+	@Test
+	void testRandomBoards() {
+		Random random = new Random(232);
+		for (int i = 0; i < 5000; i++) {
+			long occupied = random.nextLong() | random.nextLong();
+			long own = occupied & random.nextLong();
+			long opponent = occupied & ~own;
+			long empty = ~occupied;
+			while (empty != 0) {
+				int cellIndex = Long.numberOfTrailingZeros(empty);
+				assertEquals(getFlipsByWalking(cellIndex, own, opponent),
+						FlipCalculator.getFlips(cellIndex, own, opponent));
+				empty &= empty - 1;
+			}
+		}
+	}
+
+}
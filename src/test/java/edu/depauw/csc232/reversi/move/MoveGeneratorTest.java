@@ -0,0 +1,72 @@
+package edu.depauw.csc232.reversi.move;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.depauw.csc232.reversi.model.BitBoard;
+import edu.depauw.csc232.reversi.model.Player;
+import edu.depauw.csc232.reversi.model.RandomGame;
+
+/**
+ * Checks the shift-based move generator against a cell-by-cell search along
+ * the rays of each empty cell, over a number of random games.
+ */
+class MoveGeneratorTest {
+
+	private long getMovesByRays(BitBoard board, Player player) {
+		long result = 0L;
+		for (int i = 0; i < BitBoard.SIZE; i++) {
+			if ((board.getEmpty() & BitBoard.bit(i)) != 0 && board.getFlips(i, player) != 0) {
+				result |= BitBoard.bit(i);
+			}
+		}
+		return result;
+	}
+
+	private BitBoard startBoard() {
+		BitBoard board = new BitBoard();
+		board.set(27, Player.WHITE);
+		board.set(28, Player.BLACK);
+		board.set(35, Player.BLACK);
+		board.set(36, Player.WHITE);
+		return board;
+	}
+
+	@Test
+	void testStartPosition() {
+		BitBoard board = startBoard();
+		assertEquals(BitBoard.bit(19) | BitBoard.bit(26) | BitBoard.bit(37) | BitBoard.bit(44),
+				board.getMoves(Player.BLACK));
+		assertEquals(4, MoveGenerator.getMoveCount(board.getDiscs(Player.WHITE),
+				board.getDiscs(Player.BLACK)));
+	}
+
+	@Test
+	void testRandomGames() {
+		Random random = new Random(232);
+		for (int game = 0; game < 200; game++) {
+			BitBoard board = startBoard();
+			Player player = Player.BLACK;
+			while (true) {
+				long moves = board.getMoves(player);
+				assertEquals(getMovesByRays(board, player), moves);
+				if (moves == 0) {
+					player = Player.getOpponent(player);
+					moves = board.getMoves(player);
+					assertEquals(getMovesByRays(board, player), moves);
+					if (moves == 0) {
+						break;
+					}
+				}
+				board.take(RandomGame.getRandomMove(random, moves), player);
+				player = Player.getOpponent(player);
+			}
+			assertEquals(0L, board.getMoves(Player.BLACK));
+			assertEquals(0L, board.getMoves(Player.WHITE));
+		}
+	}
+
+}
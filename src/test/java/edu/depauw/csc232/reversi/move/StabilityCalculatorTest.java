@@ -0,0 +1,98 @@
+package edu.depauw.csc232.reversi.move;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.depauw.csc232.reversi.model.RandomGame;
+
+/**
+ * Checks the stable discs found on a few hand-made boards, and that the discs
+ * found stable are never flipped in random games.
+ */
+class StabilityCalculatorTest {
+
+	@Test
+	void testStartPosition() {
+		long black = (1L << 28) | (1L << 35);
+		long white = (1L << 27) | (1L << 36);
+		assertEquals(0L, StabilityCalculator.getStableDiscs(black, white));
+		assertEquals(0L, StabilityCalculator.getStableDiscs(white, black));
+	}
+
+	@Test
+	void testCorners() {
+		long own = 1L | (1L << 7) | (1L << 56) | (1L << 63);
+		long opponent = 1L << 27;
+		assertEquals(own, StabilityCalculator.getStableDiscs(own, opponent));
+	}
+
+	@Test
+	void testEdgeFromCorner() {
+		// a1 b1 c1 and a2 belong to the player, d1 to the opponent
+		long own = 0x7L | (1L << 8);
+		long opponent = 1L << 3;
+		assertEquals(own, StabilityCalculator.getStableDiscs(own, opponent));
+		// d1 can still be flipped by a move on e1
+		assertEquals(0L, StabilityCalculator.getStableDiscs(opponent, own));
+	}
+
+	@Test
+	void testInteriorBehindCorner() {
+		// a1 b1 c1 a2 b2: b2 leans on stable discs in every direction
+		long own = 0x7L | 0x300L;
+		assertEquals(own, StabilityCalculator.getStableDiscs(own, 1L << 27));
+		// without c1, b2 can still be flipped along the c1-a3 diagonal
+		own &= ~0x4L;
+		assertEquals(own & ~0x200L, StabilityCalculator.getStableDiscs(own, 1L << 27));
+	}
+
+	@Test
+	void testFullBoard() {
+		Random random = new Random(232L);
+		for (int i = 0; i < 100; i++) {
+			long own = random.nextLong();
+			assertEquals(own, StabilityCalculator.getStableDiscs(own, ~own));
+			assertEquals(Long.bitCount(~own), StabilityCalculator.getStableDiscCount(~own, own));
+		}
+	}
+
+	@Test
+	void testStableDiscsNeverFlip() {
+		Random random = new Random(232L);
+		for (int game = 0; game < 200; game++) {
+			long own = (1L << 28) | (1L << 35);
+			long opponent = (1L << 27) | (1L << 36);
+			long ownStable = 0L;
+			long opponentStable = 0L;
+			int passes = 0;
+			while (passes < 2) {
+				long moves = MoveGenerator.getMoves(own, opponent);
+				if (moves == 0) {
+					passes++;
+				} else {
+					passes = 0;
+					int cell = RandomGame.getRandomMove(random, moves);
+					long flips = FlipCalculator.getFlips(cell, own, opponent);
+					assertEquals(0L, flips & opponentStable);
+					own |= flips | (1L << cell);
+					opponent &= ~flips;
+				}
+				long swap = own;
+				own = opponent;
+				opponent = swap;
+				swap = ownStable;
+				ownStable = opponentStable;
+				opponentStable = swap;
+
+				long stable = StabilityCalculator.getStableDiscs(own, opponent);
+				assertEquals(ownStable, ownStable & stable);
+				ownStable = stable;
+				opponentStable = StabilityCalculator.getStableDiscs(opponent, own);
+			}
+		}
+	}
+
+}